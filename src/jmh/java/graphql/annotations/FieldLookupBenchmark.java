@@ -0,0 +1,100 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.SimpleExecutionStrategy;
+import graphql.language.Field;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.GraphQLSchema.newSchema;
+
+/**
+ * Per-field overhead of {@link EnhancedExecutionStrategy}: field definition lookup, uncached (as done by
+ * graphql-java) and cached, and the execution of a query selecting many fields.
+ *
+ * Run with <code>./gradlew jmh</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldLookupBenchmark {
+
+    public static class Wide {
+        @GraphQLField public int a() { return 1; }
+        @GraphQLField public int b() { return 2; }
+        @GraphQLField public int c() { return 3; }
+        @GraphQLField public int d() { return 4; }
+        @GraphQLField public int e() { return 5; }
+        @GraphQLField public int f() { return 6; }
+        @GraphQLField public int g() { return 7; }
+        @GraphQLField public int h() { return 8; }
+    }
+
+    private static class UncachedStrategy extends SimpleExecutionStrategy {
+        GraphQLFieldDefinition lookup(GraphQLSchema schema, GraphQLObjectType parentType, Field field) {
+            GraphQLFieldDefinition fieldDef = getFieldDef(schema, parentType, field);
+            // as EnhancedExecutionStrategy did for every field before caching: a lookup, then the clientMutationId check
+            return fieldDef.getName().contentEquals(EnhancedExecutionStrategy.CLIENT_MUTATION_ID) ? null : fieldDef;
+        }
+    }
+
+    private GraphQLSchema schema;
+    private GraphQLObjectType type;
+    private Field field;
+    private UncachedStrategy uncached;
+    private EnhancedExecutionStrategy cached;
+    private GraphQL graphQL;
+    private Wide root;
+
+    @Setup
+    public void setup() {
+        type = GraphQLAnnotations.object(Wide.class);
+        schema = newSchema().query(type).build();
+        field = new Field("h");
+        uncached = new UncachedStrategy();
+        cached = new EnhancedExecutionStrategy();
+        graphQL = new GraphQL(schema, cached);
+        root = new Wide();
+    }
+
+    @Benchmark
+    public GraphQLFieldDefinition uncachedLookup() {
+        return uncached.lookup(schema, type, field);
+    }
+
+    @Benchmark
+    public Object cachedLookup() {
+        EnhancedExecutionStrategy.ResolvedField resolvedField = cached.resolveFieldDef(schema, type, field);
+        return resolvedField.clientMutationId ? null : resolvedField.fieldDef;
+    }
+
+    @Benchmark
+    public ExecutionResult wideQuery() {
+        return graphQL.execute("{a b c d e f g h}", root);
+    }
+}
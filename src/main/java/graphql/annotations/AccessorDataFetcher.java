@@ -0,0 +1,149 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+/**
+ * Data fetcher for annotated Java fields that reads the value through an accessor compiled
+ * once at schema building time, instead of resolving the getter or field by name on every fetch
+ * (as {@link graphql.schema.PropertyDataFetcher} and {@link graphql.schema.FieldDataFetcher} do).
+ *
+ * Getters are spun into a small {@link Function} class through {@link LambdaMetafactory}; when
+ * that's not possible, and for plain fields, a {@link MethodHandle} is used instead. Sources that are not instances of the declaring class
+ * (maps, for example) are handed to the reflective fallback data fetcher.
+ */
+class AccessorDataFetcher implements DataFetcher {
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> sourceClass;
+    private final Function<Object, Object> accessor;
+    private final DataFetcher fallback;
+
+    private AccessorDataFetcher(Class<?> sourceClass, Function<Object, Object> accessor, DataFetcher fallback) {
+        this.sourceClass = sourceClass;
+        this.accessor = accessor;
+        this.fallback = fallback;
+    }
+
+    static AccessorDataFetcher getter(Method getter, DataFetcher fallback) throws GraphQLAnnotationsException {
+        return new AccessorDataFetcher(getter.getDeclaringClass(), compileGetter(getter), fallback);
+    }
+
+    static AccessorDataFetcher field(Field field, DataFetcher fallback) throws GraphQLAnnotationsException {
+        MethodHandle handle;
+        try {
+            field.setAccessible(true);
+            handle = MethodHandles.lookup().unreflectGetter(field);
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new GraphQLAnnotationsException("Unable to access field : " + field, e);
+        }
+        return new AccessorDataFetcher(field.getDeclaringClass(), handleAccessor(handle), fallback);
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) {
+        Object source = environment.getSource();
+        if (sourceClass.isInstance(source)) {
+            return accessor.apply(source);
+        }
+        return fallback.get(environment);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compileGetter(Method getter) {
+        MethodHandle handle;
+        try {
+            getter.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(getter);
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new GraphQLAnnotationsException("Unable to access method : " + getter, e);
+        }
+        try {
+            MethodHandles.Lookup lookup = accessorLookup(getter.getDeclaringClass());
+            if (lookup != null) {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class), ACCESSOR_TYPE, handle, handle.type().wrap());
+                return (Function<Object, Object>) site.getTarget().invoke();
+            }
+        } catch (Throwable e) {
+            // fall back to the method handle
+        }
+        return handleAccessor(handle);
+    }
+
+    private static Function<Object, Object> handleAccessor(MethodHandle handle) {
+        MethodHandle accessor = handle.asType(ACCESSOR_TYPE);
+        return source -> {
+            try {
+                return (Object) accessor.invokeExact(source);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * On Java 9+ the accessor class is defined in the target class (through <code>MethodHandles.privateLookupIn</code>).
+     * Java 8 can only define it next to this class, which requires the target class to be both
+     * visible from this class' loader and accessible from this package.
+     */
+    private static MethodHandles.Lookup accessorLookup(Class<?> targetClass) throws Throwable {
+        try {
+            Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, targetClass, MethodHandles.lookup());
+        } catch (NoSuchMethodException e) {
+            return isLinkable(targetClass) ? MethodHandles.lookup() : null;
+        }
+    }
+
+    private static boolean isLinkable(Class<?> targetClass) {
+        try {
+            if (Class.forName(targetClass.getName(), false, AccessorDataFetcher.class.getClassLoader()) != targetClass) {
+                return false;
+            }
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+        if (packageName(targetClass).equals(packageName(AccessorDataFetcher.class))) {
+            return true;
+        }
+        for (Class<?> c = targetClass; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String packageName(Class<?> c) {
+        String name = c.getName();
+        int i = name.lastIndexOf('.');
+        return i < 0 ? "" : name.substring(0, i);
+    }
+}
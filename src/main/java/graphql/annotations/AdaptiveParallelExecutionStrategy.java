@@ -0,0 +1,70 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link ParallelEnhancedExecutionStrategy} that only offloads expensive fields: data fetchers are timed,
+ * and fields whose observed latency is below the (adaptive) threshold of the {@link FieldLatencyStatistics}
+ * are resolved inline, as creating a task for them costs more than it saves.
+ *
+ * Statistics are kept for the lifetime of the strategy, which should be shared by the executions of a schema.
+ */
+public class AdaptiveParallelExecutionStrategy extends ParallelEnhancedExecutionStrategy {
+
+    private final FieldLatencyStatistics statistics;
+
+    public AdaptiveParallelExecutionStrategy() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public AdaptiveParallelExecutionStrategy(Executor executor) {
+        this(executor, new FieldLatencyStatistics());
+    }
+
+    public AdaptiveParallelExecutionStrategy(Executor executor, FieldLatencyStatistics statistics) {
+        super(executor);
+        this.statistics = statistics;
+    }
+
+    public FieldLatencyStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    protected boolean isOffloaded(GraphQLFieldDefinition fieldDef) {
+        return fieldDef != null && statistics.isExpensive(fieldDef);
+    }
+
+    @Override
+    protected Object fetch(GraphQLFieldDefinition fieldDef, DataFetchingEnvironment environment) {
+        long start = System.nanoTime();
+        try {
+            return super.fetch(fieldDef, environment);
+        } finally {
+            statistics.recordLatency(fieldDef, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    protected void offloaded(long delayNanos) {
+        statistics.recordOffloadDelay(delayNanos);
+    }
+}
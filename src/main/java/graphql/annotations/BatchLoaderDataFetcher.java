@@ -0,0 +1,112 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data fetcher for an instance method annotated with <code>@GraphQLBatched("batchMethod")</code>: within
+ * {@link BatchedEnhancedExecutionStrategy}, the calls to the method for the objects of an execution level are queued
+ * in the request's {@link BatchLoaders}, and made as a single call to the batch method. The batch method takes the
+ * list of objects followed by the parameters of the annotated method, and is called once per distinct set of
+ * arguments.
+ *
+ * Other strategies call the annotated method for each object.
+ */
+class BatchLoaderDataFetcher implements DataFetcher {
+    private final MethodDataFetcher methodDataFetcher;
+    private final MethodInvoker batchInvoker;
+    private final boolean mapResult;
+
+    BatchLoaderDataFetcher(Method method, String batchMethodName, TypeFunction typeFunction) {
+        if (Modifier.isStatic(method.getModifiers())) {
+            throw new IllegalArgumentException("Method with a batch method should not be static: " + method);
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Method batchMethod = null;
+        for (Method m : method.getDeclaringClass().getDeclaredMethods()) {
+            if (m.getName().equals(batchMethodName) && Modifier.isStatic(m.getModifiers()) &&
+                    m.getParameterCount() == parameterTypes.length + 1 && m.getParameterTypes()[0].isAssignableFrom(List.class) &&
+                    Arrays.equals(Arrays.copyOfRange(m.getParameterTypes(), 1, m.getParameterCount()), parameterTypes)) {
+                batchMethod = m;
+                break;
+            }
+        }
+        if (batchMethod == null) {
+            throw new IllegalArgumentException("No static " + batchMethodName + "(List" +
+                    (parameterTypes.length == 0 ? "" : ", ...") + ") method with the parameters of " + method);
+        }
+        if (Map.class.isAssignableFrom(batchMethod.getReturnType())) {
+            mapResult = true;
+        } else if (List.class.isAssignableFrom(batchMethod.getReturnType())) {
+            mapResult = false;
+        } else {
+            throw new IllegalArgumentException("Batch method should return a List or a Map: " + batchMethod);
+        }
+        this.methodDataFetcher = new MethodDataFetcher(method, typeFunction);
+        this.batchInvoker = MethodInvoker.of(batchMethod);
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) {
+        Object source = environment.getSource();
+        if (source == null) {
+            return null;
+        }
+        if (environment instanceof BatchLoaderEnvironment) {
+            return ((BatchLoaderEnvironment) environment).getBatchLoaders().load(this, environment.getArguments(),
+                    methodDataFetcher.invocationArgs(environment), source);
+        }
+        return methodDataFetcher.get(environment);
+    }
+
+    /**
+     * @param keys source objects
+     * @param args arguments of the annotated method, for all the keys
+     *
+     * @return the values, in the order of the keys
+     */
+    List<Object> loadBatch(List<Object> keys, Object[] args) throws Throwable {
+        Object[] batchArgs = new Object[args.length + 1];
+        batchArgs[0] = keys;
+        System.arraycopy(args, 0, batchArgs, 1, args.length);
+        Object result = batchInvoker.invoke(null, batchArgs);
+        if (result == null) {
+            throw new IllegalStateException("Batch method returned null");
+        }
+        if (mapResult) {
+            Map<?, ?> values = (Map<?, ?>) result;
+            List<Object> list = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                list.add(values.get(key));
+            }
+            return list;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object> values = (List<Object>) result;
+        if (values.size() != keys.size()) {
+            throw new IllegalStateException("Batch method returned " + values.size() + " values for " + keys.size() + " keys");
+        }
+        return values;
+    }
+}
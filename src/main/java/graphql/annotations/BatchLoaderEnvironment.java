@@ -0,0 +1,42 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.language.Field;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data fetching environment that gives batched data fetchers access to the request's batch loaders
+ */
+class BatchLoaderEnvironment extends DataFetchingEnvironment {
+    private final BatchLoaders batchLoaders;
+
+    BatchLoaderEnvironment(Object source, Map<String, Object> arguments, Object context, List<Field> fields,
+                           GraphQLOutputType fieldType, GraphQLType parentType, GraphQLSchema graphQLSchema,
+                           BatchLoaders batchLoaders) {
+        super(source, arguments, context, fields, fieldType, parentType, graphQLSchema);
+        this.batchLoaders = batchLoaders;
+    }
+
+    BatchLoaders getBatchLoaders() {
+        return batchLoaders;
+    }
+}
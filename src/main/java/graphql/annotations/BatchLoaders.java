@@ -0,0 +1,112 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Request scoped batch loaders, one per batched field and set of arguments.
+ *
+ * Loading a key queues it and returns a future, which is completed when the loader is dispatched: all the keys
+ * queued since the previous dispatch are then loaded with a single call. Futures are cached by key for the rest
+ * of the request, so every key is loaded at most once.
+ */
+class BatchLoaders {
+    private final Map<List<Object>, Loader> loaders = new LinkedHashMap<>();
+
+    /**
+     * @param fetcher   batched data fetcher
+     * @param arguments field arguments
+     * @param args      arguments of the batched method, used if the key is the first one loaded with these arguments
+     * @param key       source object
+     *
+     * @return the future value
+     */
+    synchronized CompletableFuture<Object> load(BatchLoaderDataFetcher fetcher, Map<String, Object> arguments, Object[] args, Object key) {
+        return loaders.computeIfAbsent(Arrays.asList(fetcher, arguments), k -> new Loader(fetcher, args)).load(key);
+    }
+
+    /**
+     * Dispatches all loaders with queued keys
+     *
+     * @return true if anything was dispatched
+     */
+    boolean dispatch() {
+        boolean dispatched = false;
+        List<Loader> pending;
+        while (!(pending = pending()).isEmpty()) {
+            pending.forEach(Loader::dispatch);
+            dispatched = true;
+        }
+        return dispatched;
+    }
+
+    private synchronized List<Loader> pending() {
+        List<Loader> pending = new ArrayList<>();
+        for (Loader loader : loaders.values()) {
+            if (!loader.queue.isEmpty()) {
+                pending.add(loader);
+            }
+        }
+        return pending;
+    }
+
+    private class Loader {
+        private final BatchLoaderDataFetcher fetcher;
+        private final Object[] args;
+        private final Map<Object, CompletableFuture<Object>> cache = new HashMap<>();
+        private Map<Object, CompletableFuture<Object>> queue = new LinkedHashMap<>();
+
+        private Loader(BatchLoaderDataFetcher fetcher, Object[] args) {
+            this.fetcher = fetcher;
+            this.args = args;
+        }
+
+        // guarded by BatchLoaders.this
+        private CompletableFuture<Object> load(Object key) {
+            return cache.computeIfAbsent(key, k -> {
+                CompletableFuture<Object> future = new CompletableFuture<>();
+                queue.put(k, future);
+                return future;
+            });
+        }
+
+        private void dispatch() {
+            Map<Object, CompletableFuture<Object>> batch;
+            synchronized (BatchLoaders.this) {
+                batch = queue;
+                queue = new LinkedHashMap<>();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Object> keys = new ArrayList<>(batch.keySet());
+            try {
+                List<Object> values = fetcher.loadBatch(keys, args);
+                for (int i = 0; i < keys.size(); i++) {
+                    batch.get(keys.get(i)).complete(values.get(i));
+                }
+            } catch (Throwable e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            }
+        }
+    }
+}
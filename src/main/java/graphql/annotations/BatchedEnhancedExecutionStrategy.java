@@ -0,0 +1,299 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.batched.Batched;
+import graphql.execution.batched.BatchedDataFetcher;
+import graphql.execution.batched.UnbatchedDataFetcher;
+import graphql.language.Field;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLInterfaceType;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLUnionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link EnhancedExecutionStrategy} that resolves a query one level at a time, so that batched fields are fetched
+ * with a single call for all the objects of a level (instead of once per object):
+ * <ul>
+ *     <li>fields annotated with <code>@GraphQLBatched("batchMethod")</code> are loaded with their batch method,
+ *     and cached per object for the rest of the request</li>
+ *     <li>static methods annotated with <code>@GraphQLBatched</code> (and other data fetchers annotated with
+ *     graphql-java's {@link Batched}) are called with the list of objects as their source, as by
+ *     {@link graphql.execution.batched.BatchedExecutionStrategy}</li>
+ * </ul>
+ *
+ * Values are completed as by {@link EnhancedExecutionStrategy} (optionals, enums, futures, Relay's clientMutationId).
+ * This is the recommended strategy for schemas built with {@link GraphQLAnnotations}.
+ */
+public class BatchedEnhancedExecutionStrategy extends EnhancedExecutionStrategy {
+
+    private static final ClassValue<Boolean> BATCHED = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (BatchedDataFetcher.class.isAssignableFrom(type)) {
+                return !UnbatchedDataFetcher.class.isAssignableFrom(type);
+            }
+            try {
+                return type.getMethod("get", DataFetchingEnvironment.class).isAnnotationPresent(Batched.class);
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    /**
+     * @return true if a data fetcher, or the one it runs with a timeout or on an executor, is batched
+     */
+    private static boolean isBatched(DataFetcher dataFetcher) {
+        if (dataFetcher instanceof TimeoutDataFetcher) {
+            dataFetcher = ((TimeoutDataFetcher) dataFetcher).getDataFetcher();
+        }
+        if (dataFetcher instanceof ExecutorDataFetcher) {
+            dataFetcher = ((ExecutorDataFetcher) dataFetcher).getDataFetcher();
+        }
+        return BATCHED.get(dataFetcher.getClass());
+    }
+
+    @Override
+    public ExecutionResult execute(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, Map<String, List<Field>> fields) {
+        // top-level mutation fields are resolved serially by graphql-java, each of them calling this method
+        BatchLoaders batchLoaders = new BatchLoaders();
+        Map<String, Object> data = new LinkedHashMap<>();
+        List<Node> level = Collections.singletonList(new Node(parentType, source, fields, data));
+        while (!level.isEmpty()) {
+            level = executeLevel(executionContext, batchLoaders, level);
+        }
+        return new ExecutionResultImpl(data, errors(executionContext));
+    }
+
+    /**
+     * Fetches all the fields of a level, dispatches the batch loaders and completes the values
+     *
+     * @return the objects of the next level
+     */
+    private List<Node> executeLevel(ExecutionContext executionContext, BatchLoaders batchLoaders, List<Node> level) {
+        List<FetchedField> fetched = new ArrayList<>();
+        // batched fields, by parent type and field
+        Map<List<Object>, List<FetchedField>> batches = new LinkedHashMap<>();
+        for (Node node : level) {
+            for (Map.Entry<String, List<Field>> entry : node.fields.entrySet()) {
+                node.result.put(entry.getKey(), null);
+                List<Field> fields = entry.getValue();
+                ResolvedField resolvedField = resolveFieldDef(executionContext.getGraphQLSchema(), node.type, fields.get(0));
+                FetchedField field = new FetchedField(node, entry.getKey(), fields, resolvedField);
+                if (resolvedField != null && isBatched(resolvedField.fieldDef.getDataFetcher())) {
+                    batches.computeIfAbsent(Arrays.asList(node.type, fields.get(0)), key -> new ArrayList<>()).add(field);
+                } else {
+                    fetchField(executionContext, batchLoaders, field);
+                }
+                fetched.add(field);
+            }
+        }
+        for (List<FetchedField> batch : batches.values()) {
+            fetchBatch(executionContext, batchLoaders, batch);
+        }
+
+        batchLoaders.dispatch();
+
+        List<Node> next = new ArrayList<>();
+        for (FetchedField field : fetched) {
+            Object value = field.completed ? field.value :
+                    complete(executionContext, batchLoaders, field.fieldDef.getType(), field.fields, field.value, next);
+            field.node.result.put(field.name, value);
+        }
+        return next;
+    }
+
+    private void fetchField(ExecutionContext executionContext, BatchLoaders batchLoaders, FetchedField field) {
+        GraphQLFieldDefinition fieldDef = field.fieldDef;
+        if (fieldDef == null || field.clientMutationId) {
+            ExecutionResult result = resolveField(executionContext, field.node.type, field.node.source, field.fields);
+            field.value = result != null ? result.getData() : null;
+            field.completed = true;
+            return;
+        }
+
+        DataFetchingEnvironment environment = environment(executionContext, batchLoaders, field, field.node.source);
+        try {
+            field.value = fetch(fieldDef, environment);
+        } catch (Exception e) {
+            handleDataFetchingException(executionContext, e);
+        }
+    }
+
+    /**
+     * Fetches a batched field for all the objects of a level: the data fetcher gets the list of objects as its source,
+     * and returns the list of their values
+     */
+    private void fetchBatch(ExecutionContext executionContext, BatchLoaders batchLoaders, List<FetchedField> batch) {
+        List<Object> sources = new ArrayList<>(batch.size());
+        for (FetchedField field : batch) {
+            sources.add(field.node.source);
+        }
+        FetchedField first = batch.get(0);
+        DataFetchingEnvironment environment = environment(executionContext, batchLoaders, first, sources);
+        try {
+            Object values = fetch(first.fieldDef, environment);
+            if (values instanceof CompletionStage) {
+                // e.g. a batch running on an executor
+                CompletableFuture<?> future = ((CompletionStage<?>) values).toCompletableFuture();
+                if (!future.isDone()) {
+                    batchLoaders.dispatch();
+                }
+                try {
+                    values = future.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            if (!(values instanceof List) || ((List<?>) values).size() != sources.size()) {
+                throw new IllegalStateException("Batched data fetcher for " + first.fieldDef.getName() +
+                        " should return a List of " + sources.size() + " values");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).value = ((List<?>) values).get(i);
+            }
+        } catch (Exception e) {
+            handleDataFetchingException(executionContext, e);
+        }
+    }
+
+    private DataFetchingEnvironment environment(ExecutionContext executionContext, BatchLoaders batchLoaders,
+                                                FetchedField field, Object source) {
+        Map<String, Object> argumentValues = valuesResolver.getArgumentValues(field.fieldDef.getArguments(),
+                field.fields.get(0).getArguments(), executionContext.getVariables());
+        return new BatchLoaderEnvironment(source, argumentValues, executionContext.getRoot(), field.fields,
+                field.fieldDef.getType(), field.node.type, executionContext.getGraphQLSchema(), batchLoaders);
+    }
+
+    /**
+     * Completes a fetched value. Objects are completed with an empty result, which is filled in
+     * when their fields are resolved with the next level.
+     */
+    private Object complete(ExecutionContext executionContext, BatchLoaders batchLoaders, GraphQLType fieldType,
+                            List<Field> fields, Object value, List<Node> next) {
+        if (value instanceof CompletionStage) {
+            CompletableFuture<?> future = ((CompletionStage<?>) value).toCompletableFuture();
+            if (!future.isDone()) {
+                // the future may depend on values queued after the level was dispatched
+                batchLoaders.dispatch();
+            }
+            try {
+                value = future.join();
+            } catch (CompletionException | CancellationException e) {
+                handleDataFetchingException(executionContext, e instanceof CompletionException ? e.getCause() : e);
+                value = null;
+            }
+        }
+        if (value instanceof Optional) {
+            value = ((Optional<?>) value).orElse(null);
+        }
+
+        if (fieldType instanceof GraphQLNonNull) {
+            Object completed = complete(executionContext, batchLoaders, ((GraphQLNonNull) fieldType).getWrappedType(), fields, value, next);
+            if (completed == null) {
+                throw new GraphQLException("Cannot return null for non-nullable type: " + fields);
+            }
+            return completed;
+        }
+        if (value == null) {
+            return null;
+        }
+
+        if (fieldType instanceof GraphQLList && (value instanceof Iterable || value instanceof Object[])) {
+            Iterable<?> items = value instanceof Object[] ? Arrays.asList((Object[]) value) : (Iterable<?>) value;
+            List<Object> completed = new ArrayList<>();
+            for (Object item : items) {
+                completed.add(complete(executionContext, batchLoaders, ((GraphQLList) fieldType).getWrappedType(), fields, item, next));
+            }
+            return completed;
+        }
+
+        GraphQLObjectType objectType;
+        if (fieldType instanceof GraphQLObjectType) {
+            objectType = (GraphQLObjectType) fieldType;
+        } else if (fieldType instanceof GraphQLInterfaceType) {
+            objectType = resolveType((GraphQLInterfaceType) fieldType, value);
+        } else if (fieldType instanceof GraphQLUnionType) {
+            objectType = resolveType((GraphQLUnionType) fieldType, value);
+        } else {
+            return completeValue(executionContext, fieldType, fields, value).getData();
+        }
+
+        Map<String, List<Field>> subFields = new LinkedHashMap<>();
+        List<String> visitedFragments = new ArrayList<>();
+        for (Field field : fields) {
+            if (field.getSelectionSet() != null) {
+                fieldCollector.collectFields(executionContext, objectType, field.getSelectionSet(), visitedFragments, subFields);
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        next.add(new Node(objectType, value, subFields, result));
+        return result;
+    }
+
+    private static class Node {
+        private final GraphQLObjectType type;
+        private final Object source;
+        private final Map<String, List<Field>> fields;
+        private final Map<String, Object> result;
+
+        private Node(GraphQLObjectType type, Object source, Map<String, List<Field>> fields, Map<String, Object> result) {
+            this.type = type;
+            this.source = source;
+            this.fields = fields;
+            this.result = result;
+        }
+    }
+
+    private static class FetchedField {
+        private final Node node;
+        private final String name;
+        private final List<Field> fields;
+        private final GraphQLFieldDefinition fieldDef;
+        private final boolean clientMutationId;
+        private Object value;
+        private boolean completed;
+
+        private FetchedField(Node node, String name, List<Field> fields, ResolvedField resolvedField) {
+            this.node = node;
+            this.name = name;
+            this.fields = fields;
+            this.fieldDef = resolvedField == null ? null : resolvedField.fieldDef;
+            this.clientMutationId = resolvedField != null && resolvedField.clientMutationId;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reflection metadata of a class that schema building needs: its GraphQL name and description,
+ * ordered methods, fields and which of them are GraphQL fields.
+ *
+ * Metadata is computed at most once per class (per class loader) and shared by all
+ * {@link GraphQLAnnotations} instances.
+ */
+class ClassMetadata {
+    private static final ClassValue<ClassMetadata> METADATA = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private final String typeName;
+    private final String description;
+    private final List<Method> orderedMethods;
+    private final Map<String, Field> allFields;
+    private final Map<String, Method> noArgMethods;
+    private final Map<Method, Boolean> graphQLMethods = new ConcurrentHashMap<>();
+    private final Map<Field, Boolean> graphQLFields = new ConcurrentHashMap<>();
+
+    private ClassMetadata(Class<?> c) {
+        GraphQLName name = c.getAnnotation(GraphQLName.class);
+        typeName = name == null ? c.getSimpleName() : name.value();
+        GraphQLDescription description = c.getAnnotation(GraphQLDescription.class);
+        this.description = description == null ? null : description.value();
+
+        orderedMethods = Collections.unmodifiableList(Arrays.stream(c.getMethods())
+                .sorted(Comparator.comparing(Method::getName))
+                .collect(Collectors.toList()));
+
+        Map<String, Field> fields = c.getSuperclass() == null ? new TreeMap<>() : new TreeMap<>(of(c.getSuperclass()).allFields);
+        for (Field f : c.getDeclaredFields()) {
+            fields.put(f.getName(), f);
+        }
+        allFields = Collections.unmodifiableMap(fields);
+
+        Map<String, Method> methods = new HashMap<>();
+        for (Method method : orderedMethods) {
+            if (method.getParameterCount() == 0) {
+                // covariant overrides leave a bridge method with the same name behind
+                methods.merge(method.getName(), method, (existing, m) -> existing.isBridge() ? m : existing);
+            }
+        }
+        noArgMethods = methods;
+    }
+
+    static ClassMetadata of(Class<?> c) {
+        return METADATA.get(c);
+    }
+
+    String getTypeName() {
+        return typeName;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return public methods, sorted by name
+     */
+    List<Method> getOrderedMethods() {
+        return orderedMethods;
+    }
+
+    /**
+     * @return all fields, including inherited ones, by name
+     */
+    Map<String, Field> getAllFields() {
+        return allFields;
+    }
+
+    /**
+     * Exception-free alternative to <code>getMethod(name)</code>
+     *
+     * @param name method name
+     *
+     * @return public method with the given name and no parameters, or null if there is none
+     */
+    Method getNoArgMethod(String name) {
+        return noArgMethods.get(name);
+    }
+
+    /**
+     * @param prefix       getter prefix, such as <code>get</code> or <code>is</code>
+     * @param propertyName property name
+     *
+     * @return the getter name, with the first letter of the property capitalized
+     */
+    static String getterName(String prefix, String propertyName) {
+        int offset = prefix.length();
+        char[] chars = new char[offset + propertyName.length()];
+        prefix.getChars(0, offset, chars, 0);
+        propertyName.getChars(0, propertyName.length(), chars, offset);
+        chars[offset] = Character.toUpperCase(chars[offset]);
+        return new String(chars);
+    }
+
+    boolean isGraphQLField(Method method) {
+        return graphQLMethods.computeIfAbsent(method, m -> !m.isBridge() && !m.isSynthetic() && breadthFirstSearch(m));
+    }
+
+    boolean isGraphQLField(Field field) {
+        return graphQLFields.computeIfAbsent(field, f -> !Modifier.isStatic(f.getModifiers()) && parentalSearch(f));
+    }
+
+    private static Boolean graphQLFieldAnnotation(AnnotatedElement element) {
+        GraphQLField annotation = element.getAnnotation(GraphQLField.class);
+        if (annotation == null) {
+            return null;
+        }
+        return annotation.value();
+    }
+
+    /**
+     * breadthFirst parental ascent looking for closest method declaration with explicit annotation
+     *
+     * @param method The method to match
+     * @return The closest GraphQLField annotation
+     */
+    private static boolean breadthFirstSearch(Method method) {
+        final Queue<Class<?>> queue = new ArrayDeque<>();
+        final String methodName = method.getName();
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        queue.add(method.getDeclaringClass());
+        do {
+            Class<?> cls = queue.remove();
+
+            try {
+                method = cls.getDeclaredMethod(methodName, parameterTypes);
+                Boolean gqf = graphQLFieldAnnotation(method);
+                if (gqf != null) {
+                    return gqf;
+                }
+            } catch (NoSuchMethodException e) {
+            }
+
+            Boolean gqf = graphQLFieldAnnotation(cls);
+            if (gqf != null) {
+                return gqf;
+            }
+
+            // add interfaces to places to search
+            for (Class<?> iface : cls.getInterfaces()) {
+                queue.add(iface);
+            }
+            // add parent class to places to search
+            Class<?> nxt = cls.getSuperclass();
+            if (nxt != null) {
+                queue.add(nxt);
+            }
+        } while (!queue.isEmpty());
+        return false;
+    }
+
+    /**
+     * direct parental ascent looking for closest declaration with explicit annotation
+     *
+     * @param field The field to find
+     * @return The closest GraphQLField annotation
+     */
+    private static boolean parentalSearch(Field field) {
+        Boolean gqf = graphQLFieldAnnotation(field);
+        if (gqf != null) {
+            return gqf;
+        }
+        Class<?> cls = field.getDeclaringClass();
+
+        do {
+            gqf = graphQLFieldAnnotation(cls);
+            if (gqf != null) {
+                return gqf;
+            }
+            cls = cls.getSuperclass();
+        } while (cls != null);
+        return false;
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static graphql.annotations.ReflectionKit.newInstance;
+
+/**
+ * Data fetcher of a {@link GraphQLConnection} field: wraps the value fetched by the field's data fetcher into a
+ * {@link Connection}, which applies the connection arguments.
+ *
+ * The connection factory is resolved once: the default {@link DispatchingConnection} is specialized on the declared
+ * type of the field (List, Stream or Page, or a future of one of them), and still dispatches on the fetched value
+ * if it has another type. Other connection classes are built through a method handle.
+ */
+class ConnectionDataFetcher implements DataFetcher {
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Connection.class, Object.class);
+    private static final MethodType CODEC_FACTORY_TYPE = MethodType.methodType(Connection.class, Object.class, CursorCodec.class);
+
+    private final DataFetcher actualDataFetcher;
+    private final Function<Object, Connection> factory;
+    private final CursorCodec cursorCodec;
+    // keyset paginated connections get the connection arguments as a page request
+    private final boolean paged;
+
+    ConnectionDataFetcher(AccessibleObject element, DataFetcher actualDataFetcher) {
+        GraphQLConnection annotation = element.getAnnotation(GraphQLConnection.class);
+        Class<?> type = valueType(element instanceof Field ? ((Field) element).getGenericType() : ((Method) element).getGenericReturnType());
+        Class<? extends CursorCodec> codecClass = annotation.cursorCodec();
+        this.actualDataFetcher = actualDataFetcher;
+        this.cursorCodec = codecClass == DefaultCursorCodec.class ? DefaultCursorCodec.INSTANCE : newInstance(codecClass);
+        this.factory = factory(annotation.connection(), type, codecClass != DefaultCursorCodec.class, cursorCodec);
+        this.paged = Page.class.isAssignableFrom(type);
+    }
+
+    /**
+     * @return the class of the values of a field, or of its future values
+     */
+    private static Class<?> valueType(Type type) {
+        Class<?> rawType = rawType(type);
+        if (CompletionStage.class.isAssignableFrom(rawType) && type instanceof ParameterizedType) {
+            return rawType(((ParameterizedType) type).getActualTypeArguments()[0]);
+        }
+        return rawType;
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof ParameterizedType) {
+            type = ((ParameterizedType) type).getRawType();
+        }
+        return type instanceof Class ? (Class<?>) type : Object.class;
+    }
+
+    private static Function<Object, Connection> factory(Class<? extends Connection> connection, Class<?> type,
+                                                        boolean customCodec, CursorCodec cursorCodec) {
+        if (connection == DispatchingConnection.class) {
+            // e.g. a custom data fetcher may return another type than the declared one
+            if (List.class.isAssignableFrom(type)) {
+                return data -> data instanceof List ? new ListConnection((List<?>) data, cursorCodec) :
+                        new DispatchingConnection(data, cursorCodec);
+            }
+            if (Stream.class.isAssignableFrom(type)) {
+                return data -> data instanceof Stream ? new StreamConnection((Stream<?>) data, cursorCodec) :
+                        new DispatchingConnection(data, cursorCodec);
+            }
+            if (Page.class.isAssignableFrom(type)) {
+                return data -> data instanceof Page ? new PageConnection((Page<?>) data, cursorCodec) :
+                        new DispatchingConnection(data, cursorCodec);
+            }
+            return data -> new DispatchingConnection(data, cursorCodec);
+        }
+
+        // connections taking a cursor codec are preferred
+        Optional<Constructor<?>> constructor = Arrays.stream(connection.getConstructors()).
+                filter(c -> c.getParameterCount() == 2 && c.getParameterTypes()[1] == CursorCodec.class).
+                findFirst();
+        if (constructor.isPresent()) {
+            MethodHandle handle = MethodHandles.insertArguments(unreflect(constructor.get(), CODEC_FACTORY_TYPE), 1, cursorCodec);
+            return data -> newConnection(handle, data);
+        }
+        if (customCodec) {
+            throw new IllegalArgumentException(connection + " doesn't have a constructor taking a cursor codec");
+        }
+        constructor = Arrays.stream(connection.getConstructors()).filter(c -> c.getParameterCount() == 1).findFirst();
+        if (!constructor.isPresent()) {
+            throw new IllegalArgumentException(connection + " doesn't have a single argument constructor");
+        }
+        MethodHandle handle = unreflect(constructor.get(), FACTORY_TYPE);
+        return data -> newConnection(handle, data);
+    }
+
+    private static MethodHandle unreflect(Constructor<?> constructor, MethodType type) throws GraphQLAnnotationsException {
+        try {
+            return MethodHandles.publicLookup().unreflectConstructor(constructor).asType(type);
+        } catch (IllegalAccessException e) {
+            throw new GraphQLAnnotationsException("Unable to access constructor : " + constructor, e);
+        }
+    }
+
+    private static Connection newConnection(MethodHandle handle, Object data) {
+        try {
+            return (Connection) handle.invokeExact(data);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new GraphQLAnnotationsException("Unable to instantiate connection", e);
+        }
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) {
+        DataFetchingEnvironment env = environment;
+        // Exclude arguments, keyset paginated methods get them as a page request
+        if (paged) {
+            env = new PageRequestEnvironment(environment.getSource(), Collections.emptyMap(), environment.getContext(),
+                    environment.getFields(), environment.getFieldType(), environment.getParentType(), environment.getGraphQLSchema(),
+                    PageRequest.of(environment.getArguments(), cursorCodec));
+        } else {
+            env = new DataFetchingEnvironment(environment.getSource(), Collections.emptyMap(), environment.getContext(),
+                    environment.getFields(), environment.getFieldType(), environment.getParentType(), environment.getGraphQLSchema());
+        }
+        Object data = actualDataFetcher.get(env);
+        if (data instanceof CompletionStage) {
+            // completed by the enhanced execution strategies
+            return ((CompletionStage<?>) data).thenApply(value -> value == null ? null : factory.apply(value).get(environment));
+        }
+        return factory.apply(data).get(environment);
+    }
+}
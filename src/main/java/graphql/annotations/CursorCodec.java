@@ -0,0 +1,31 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+/**
+ * Encodes connection cursors, and decodes the {@code after} and {@code before} arguments back.
+ *
+ * Offset cursors locate an edge by its position, key cursors by the key of its node (see keyset pagination).
+ * Decoding a cursor this codec didn't create should fail with an {@link IllegalArgumentException}.
+ */
+public interface CursorCodec {
+    String encodeOffset(int offset);
+
+    int decodeOffset(String cursor);
+
+    String encodeKey(Object key);
+
+    Object decodeKey(String cursor);
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Compact cursor codec: offsets and integral keys are written as a tag character followed by their base 64 digits
+ * (so offset 5 is "oF"), straight into the cursor's characters. String keys are Base64 encoded.
+ *
+ * Integral keys (Long, Integer, Short, Byte) are decoded as Long.
+ */
+public class DefaultCursorCodec implements CursorCodec {
+
+    public static final DefaultCursorCodec INSTANCE = new DefaultCursorCodec();
+
+    private static final char OFFSET = 'o';
+    private static final char LONG = 'l';
+    private static final char STRING = 's';
+
+    // URL safe Base64 alphabet
+    private static final char[] DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = i;
+        }
+    }
+
+    @Override
+    public String encodeOffset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset " + offset);
+        }
+        return encode(OFFSET, offset);
+    }
+
+    @Override
+    public int decodeOffset(String cursor) {
+        long offset = decode(OFFSET, cursor);
+        if (offset > Integer.MAX_VALUE) {
+            throw invalid(cursor);
+        }
+        return (int) offset;
+    }
+
+    @Override
+    public String encodeKey(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            long value = ((Number) key).longValue();
+            return encode(LONG, (value << 1) ^ (value >> 63));
+        }
+        if (key instanceof String) {
+            return STRING + Base64.getUrlEncoder().withoutPadding().encodeToString(((String) key).getBytes(StandardCharsets.UTF_8));
+        }
+        throw new IllegalArgumentException("Unsupported cursor key " + key);
+    }
+
+    @Override
+    public Object decodeKey(String cursor) {
+        if (cursor != null && !cursor.isEmpty() && cursor.charAt(0) == STRING) {
+            try {
+                return new String(Base64.getUrlDecoder().decode(cursor.substring(1)), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw invalid(cursor);
+            }
+        }
+        long value = decode(LONG, cursor);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static String encode(char tag, long value) {
+        char[] chars = new char[12];
+        int i = chars.length;
+        do {
+            chars[--i] = DIGITS[(int) (value & 63)];
+            value >>>= 6;
+        } while (value != 0);
+        chars[--i] = tag;
+        return new String(chars, i, chars.length - i);
+    }
+
+    private static long decode(char tag, String cursor) {
+        // a tag and up to 11 digits, the first of which only holds the top 4 bits of a long
+        if (cursor == null || cursor.length() < 2 || cursor.length() > 12 || cursor.charAt(0) != tag) {
+            throw invalid(cursor);
+        }
+        long value = 0;
+        for (int i = 1; i < cursor.length(); i++) {
+            char c = cursor.charAt(i);
+            int digit = c < 128 ? VALUES[c] : -1;
+            if (digit < 0 || (i == 1 && cursor.length() == 12 && digit > 15)) {
+                throw invalid(cursor);
+            }
+            value = value << 6 | digit;
+        }
+        return value;
+    }
+
+    static IllegalArgumentException invalid(String cursor) {
+        return new IllegalArgumentException("Invalid cursor " + cursor);
+    }
+}
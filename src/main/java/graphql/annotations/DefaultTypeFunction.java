@@ -18,7 +18,6 @@ import graphql.Scalars;
 import graphql.schema.GraphQLEnumType;
 import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLType;
-import graphql.schema.GraphQLTypeReference;
 import org.osgi.service.component.annotations.*;
 
 import java.lang.reflect.AnnotatedParameterizedType;
@@ -26,6 +25,8 @@ import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -50,9 +51,12 @@ public class DefaultTypeFunction implements TypeFunction {
 
     private Map<Class<?>, BiFunction<Class<?>, AnnotatedType, GraphQLType>> registry;
 
-    GraphQLAnnotationsProcessor annotationsProcessor;
+    // registry lookups resolved so far, replaced whenever a function gets registered
+    private volatile Map<Class<?>, Resolution> resolved = new ConcurrentHashMap<>();
 
-    void setAnnotationsProcessor(GraphQLAnnotationsProcessor annotationsProcessor) {
+    GraphQLAnnotations annotationsProcessor;
+
+    void setAnnotationsProcessor(GraphQLAnnotations annotationsProcessor) {
         this.annotationsProcessor = annotationsProcessor;
     }
 
@@ -185,6 +189,29 @@ public class DefaultTypeFunction implements TypeFunction {
         }
     }
 
+    private class PageFunction implements TypeFunction {
+
+        @Override
+        public GraphQLType apply(Class<?> aClass, AnnotatedType annotatedType) {
+            if (!(annotatedType instanceof AnnotatedParameterizedType)) {
+                throw new IllegalArgumentException("Page type parameter should be specified");
+            }
+            AnnotatedParameterizedType parameterizedType = (AnnotatedParameterizedType) annotatedType;
+            AnnotatedType arg = parameterizedType.getAnnotatedActualTypeArguments()[0];
+            Class<?> klass;
+            if (arg.getType() instanceof ParameterizedType) {
+                klass = (Class<?>)((ParameterizedType)(arg.getType())).getRawType();
+            } else {
+                klass = (Class<?>) arg.getType();
+            }
+            return new GraphQLList(DefaultTypeFunction.this.apply(klass, arg));
+        }
+
+        @Override public Collection<Class<?>> getAcceptedTypes() {
+            return Collections.singletonList(Page.class);
+        }
+    }
+
     private class OptionalFunction implements TypeFunction {
 
         @Override
@@ -208,8 +235,30 @@ public class DefaultTypeFunction implements TypeFunction {
         }
     }
 
+    private class CompletionStageFunction implements TypeFunction {
+
+        @Override
+        public GraphQLType apply(Class<?> aClass, AnnotatedType annotatedType) {
+            if (!(annotatedType instanceof AnnotatedParameterizedType)) {
+                throw new IllegalArgumentException("CompletionStage type parameter should be specified");
+            }
+            AnnotatedParameterizedType parameterizedType = (AnnotatedParameterizedType) annotatedType;
+            AnnotatedType arg = parameterizedType.getAnnotatedActualTypeArguments()[0];
+            Class<?> klass;
+            if (arg.getType() instanceof ParameterizedType) {
+                klass = (Class<?>)((ParameterizedType)(arg.getType())).getRawType();
+            } else {
+                klass = (Class<?>) arg.getType();
+            }
+            return DefaultTypeFunction.this.apply(klass, arg);
+        }
+
+        @Override public Collection<Class<?>> getAcceptedTypes() {
+            return Arrays.asList(CompletionStage.class, CompletableFuture.class);
+        }
+    }
+
     private class EnumFunction implements TypeFunction {
-        private final Map<String, GraphQLTypeReference> processing = new ConcurrentHashMap<>();
         private final Map<String, GraphQLType> types = new ConcurrentHashMap<>();
 
         @Override
@@ -217,14 +266,7 @@ public class DefaultTypeFunction implements TypeFunction {
             GraphQLName name = aClass.getAnnotation(GraphQLName.class);
             String typeName = name == null ? aClass.getSimpleName() : name.value();
 
-            if (types.containsKey(typeName)) {
-                return types.get(typeName);
-            } else if(processing.containsKey(typeName)) {
-                return processing.getOrDefault(typeName, new GraphQLTypeReference(typeName));
-            } else {
-
-                processing.put(typeName, new GraphQLTypeReference(typeName));
-
+            return types.computeIfAbsent(typeName, key -> {
                 Class<? extends Enum> enumClass = (Class<? extends Enum>) aClass;
                 GraphQLEnumType.Builder builder = newEnum();
                 builder.name(typeName);
@@ -248,11 +290,8 @@ public class DefaultTypeFunction implements TypeFunction {
                     }
                 });
 
-                final GraphQLEnumType type = builder.build();
-                types.put(typeName, type);
-                processing.remove(type);
-                return type;
-            }
+                return builder.build();
+            });
         }
 
         @Override public Collection<Class<?>> getAcceptedTypes() {
@@ -262,29 +301,9 @@ public class DefaultTypeFunction implements TypeFunction {
 
     private class ObjectFunction implements TypeFunction {
 
-        private final Map<String, GraphQLTypeReference> processing = new ConcurrentHashMap<>();
-        private final Map<String, GraphQLType> types = new ConcurrentHashMap<>();
-
         @Override
         public GraphQLType apply(Class<?> aClass, AnnotatedType annotatedType) {
-            GraphQLName name = aClass.getAnnotation(GraphQLName.class);
-            String typeName = name == null ? aClass.getName() : name.value();
-            if (types.containsKey(typeName)) {
-                return types.get(typeName);
-            } else if (processing.containsKey(typeName)) {
-                return processing.getOrDefault(typeName, new GraphQLTypeReference(typeName));
-            } else {
-                processing.put(typeName, new GraphQLTypeReference(typeName));
-                GraphQLType type;
-                if (aClass.isInterface()) {
-                    type = annotationsProcessor.getInterface(aClass);
-                } else {
-                    type = annotationsProcessor.getObject(aClass);
-                }
-                types.put(typeName, type);
-                processing.remove(typeName);
-                return type;
-            }
+            return annotationsProcessor.getTypeOrReference(aClass);
         }
 
         @Override public Collection<Class<?>> getAcceptedTypes() {
@@ -304,11 +323,13 @@ public class DefaultTypeFunction implements TypeFunction {
 
         register(new ListFunction());
         register(new StreamFunction());
+        register(new PageFunction());
         register(new SetFunction());
 
         register(new EnumFunction());
 
         register(new OptionalFunction());
+        register(new CompletionStageFunction());
 
         register(new ObjectFunction());
     }
@@ -320,11 +341,25 @@ public class DefaultTypeFunction implements TypeFunction {
 
     public Class<DefaultTypeFunction> register(TypeFunction function) {
         function.getAcceptedTypes().forEach(t -> registry.put(t, function));
+        resolved = new ConcurrentHashMap<>();
         return DefaultTypeFunction.class;
     }
 
     @Override
     public GraphQLType apply(Class<?> klass, AnnotatedType annotatedType) {
+        Resolution resolution = resolved.computeIfAbsent(klass, this::resolve);
+
+        GraphQLType result = resolution.function.apply(klass, annotatedType);
+
+        if (resolution.nonNull ||
+            (annotatedType != null && annotatedType.getAnnotation(GraphQLNonNull.class) != null)) {
+            result = new graphql.schema.GraphQLNonNull(result);
+        }
+
+        return result;
+    }
+
+    private Resolution resolve(Class<?> klass) {
         Class<?> t = klass;
 
         while (!registry.containsKey(t)) {
@@ -339,13 +374,16 @@ public class DefaultTypeFunction implements TypeFunction {
             }
         }
 
-        GraphQLType result = registry.get(t).apply(klass, annotatedType);
+        return new Resolution(registry.get(t), klass.getAnnotation(GraphQLNonNull.class) != null);
+    }
 
-        if (klass.getAnnotation(GraphQLNonNull.class) != null ||
-            (annotatedType != null && annotatedType.getAnnotation(GraphQLNonNull.class) != null)) {
-            result = new graphql.schema.GraphQLNonNull(result);
-        }
+    private static class Resolution {
+        private final BiFunction<Class<?>, AnnotatedType, GraphQLType> function;
+        private final boolean nonNull;
 
-        return result;
+        private Resolution(BiFunction<Class<?>, AnnotatedType, GraphQLType> function, boolean nonNull) {
+            this.function = function;
+            this.nonNull = nonNull;
+        }
     }
 }
@@ -24,10 +24,16 @@ public class DispatchingConnection implements DataFetcher, Connection {
     private final DataFetcher connection;
 
     public DispatchingConnection(Object o) {
+        this(o, DefaultCursorCodec.INSTANCE);
+    }
+
+    public DispatchingConnection(Object o, CursorCodec cursorCodec) {
         if (o instanceof List) {
-            connection = new ListConnection((List<?>) o);
+            connection = new ListConnection((List<?>) o, cursorCodec);
         } else if (o instanceof Stream) {
-            connection = new StreamConnection((Stream<?>) o);
+            connection = new StreamConnection((Stream<?>) o, cursorCodec);
+        } else if (o instanceof Page) {
+            connection = new PageConnection((Page<?>) o, cursorCodec);
         } else {
             throw new RuntimeException("unsupported type " + o.getClass());
         }
@@ -16,6 +16,7 @@ package graphql.annotations;
 
 import graphql.ExceptionWhileDataFetching;
 import graphql.ExecutionResult;
+import graphql.GraphQLError;
 import graphql.execution.ExecutionContext;
 import graphql.execution.SimpleExecutionStrategy;
 import graphql.language.*;
@@ -24,51 +25,181 @@ import graphql.schema.GraphQLType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class EnhancedExecutionStrategy extends SimpleExecutionStrategy {
 
     private static final Logger log = LoggerFactory.getLogger(EnhancedExecutionStrategy.class);
-    private static final String CLIENT_MUTATION_ID = "clientMutationId";
+    static final String CLIENT_MUTATION_ID = "clientMutationId";
+
+    // field definitions by schema, parent type and field name; schemas are only weakly held
+    private final Map<GraphQLSchema, Map<GraphQLObjectType, Map<String, ResolvedField>>> resolvedFields = new WeakHashMap<>();
+    // resolved fields of the last schema, so that a strategy used with a single schema doesn't lock
+    private volatile SchemaFields lastSchemaFields;
 
     @Override
     protected ExecutionResult resolveField(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, List<Field> fields) {
-        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext.getGraphQLSchema(), parentType, fields.get(0));
-        if (fieldDef == null) return null;
-
-        if (fieldDef.getName().contentEquals(CLIENT_MUTATION_ID)) {
-            Field field = (Field) executionContext.getOperationDefinition().getSelectionSet().getSelections().get(0);
-            Argument argument = field.getArguments().get(0);
-
-            Object clientMutationId;
-            if (argument.getValue() instanceof  VariableReference) {
-                VariableReference ref = (VariableReference) argument.getValue();
-                HashMap mutationInputVariables = (HashMap) executionContext.getVariables().get(ref.getName());
-                clientMutationId = mutationInputVariables.get(CLIENT_MUTATION_ID);
-            } else {
-                ObjectValue value = (ObjectValue) field.getArguments().get(0).getValue();
-                StringValue clientMutationIdVal = (StringValue) value.getObjectFields().stream()
-                        .filter(f -> f.getName().contentEquals(CLIENT_MUTATION_ID))
-                        .findFirst().get().getValue();
-                clientMutationId = clientMutationIdVal.getValue();
+        ResolvedField resolvedField = resolveFieldDef(executionContext.getGraphQLSchema(), parentType, fields.get(0));
+        if (resolvedField == null) return null;
+        GraphQLFieldDefinition fieldDef = resolvedField.fieldDef;
+
+        if (resolvedField.clientMutationId) {
+            return completeValue(executionContext, fieldDef.getType(), fields, getClientMutationId(executionContext));
+        }
+
+        Map<String, Object> argumentValues = valuesResolver.getArgumentValues(fieldDef.getArguments(), fields.get(0).getArguments(),
+                executionContext.getVariables());
+        DataFetchingEnvironment environment = new DataFetchingEnvironment(source, argumentValues, executionContext.getRoot(),
+                fields, fieldDef.getType(), parentType, executionContext.getGraphQLSchema());
+
+        Object resolvedValue = null;
+        try {
+            resolvedValue = fetch(fieldDef, environment);
+        } catch (Exception e) {
+            handleDataFetchingException(executionContext, e);
+        }
+        return completeValue(executionContext, fieldDef.getType(), fields, resolvedValue);
+    }
+
+    @Override
+    protected GraphQLFieldDefinition getFieldDef(GraphQLSchema schema, GraphQLObjectType parentType, Field field) {
+        ResolvedField resolvedField = resolveFieldDef(schema, parentType, field);
+        return resolvedField == null ? null : resolvedField.fieldDef;
+    }
+
+    /**
+     * Looks up a field definition, once per schema, parent type and field name
+     */
+    ResolvedField resolveFieldDef(GraphQLSchema schema, GraphQLObjectType parentType, Field field) {
+        Map<GraphQLObjectType, Map<String, ResolvedField>> types = resolvedTypes(schema);
+        Map<String, ResolvedField> fields = types.get(parentType);
+        if (fields == null) {
+            fields = types.computeIfAbsent(parentType, type -> new ConcurrentHashMap<>());
+        }
+        ResolvedField resolvedField = fields.get(field.getName());
+        if (resolvedField == null) {
+            GraphQLFieldDefinition fieldDef = super.getFieldDef(schema, parentType, field);
+            if (fieldDef == null) {
+                return null;
             }
+            resolvedField = new ResolvedField(fieldDef);
+            fields.put(field.getName(), resolvedField);
+        }
+        return resolvedField;
+    }
+
+    private Map<GraphQLObjectType, Map<String, ResolvedField>> resolvedTypes(GraphQLSchema schema) {
+        SchemaFields schemaFields = lastSchemaFields;
+        if (schemaFields == null || schemaFields.schema != schema) {
+            Map<GraphQLObjectType, Map<String, ResolvedField>> types;
+            synchronized (resolvedFields) {
+                types = resolvedFields.computeIfAbsent(schema, key -> new ConcurrentHashMap<>());
+            }
+            schemaFields = new SchemaFields(schema, types);
+            lastSchemaFields = schemaFields;
+        }
+        return schemaFields.types;
+    }
+
+    private static final class SchemaFields {
+        private final GraphQLSchema schema;
+        private final Map<GraphQLObjectType, Map<String, ResolvedField>> types;
 
-            return completeValue(executionContext, fieldDef.getType(), fields, clientMutationId);
-        } else {
-            return super.resolveField(executionContext, parentType, source, fields);
+        private SchemaFields(GraphQLSchema schema, Map<GraphQLObjectType, Map<String, ResolvedField>> types) {
+            this.schema = schema;
+            this.types = types;
         }
     }
 
+    /**
+     * @return the clientMutationId of the input of the (Relay) mutation being executed
+     */
+    Object getClientMutationId(ExecutionContext executionContext) {
+        Field field = (Field) executionContext.getOperationDefinition().getSelectionSet().getSelections().get(0);
+        Argument argument = field.getArguments().get(0);
+
+        if (argument.getValue() instanceof VariableReference) {
+            String name = ((VariableReference) argument.getValue()).getName();
+            return ((Map) executionContext.getVariables().get(name)).get(CLIENT_MUTATION_ID);
+        }
+        ObjectValue value = (ObjectValue) argument.getValue();
+        StringValue clientMutationIdVal = (StringValue) value.getObjectFields().stream()
+                .filter(f -> f.getName().contentEquals(CLIENT_MUTATION_ID))
+                .findFirst().get().getValue();
+        return clientMutationIdVal.getValue();
+    }
+
+    static final class ResolvedField {
+        final GraphQLFieldDefinition fieldDef;
+        final boolean clientMutationId;
+
+        private ResolvedField(GraphQLFieldDefinition fieldDef) {
+            this.fieldDef = fieldDef;
+            this.clientMutationId = fieldDef.getName().contentEquals(CLIENT_MUTATION_ID);
+        }
+    }
+
+    /**
+     * Calls the data fetcher of a field, within its {@link GraphQLTimeout} and the {@link RequestDeadline}, if any
+     *
+     * @param fieldDef    field definition
+     * @param environment data fetching environment
+     *
+     * @return the fetched value
+     */
+    protected Object fetch(GraphQLFieldDefinition fieldDef, DataFetchingEnvironment environment) {
+        return FieldTimeouts.fetch(fieldDef.getDataFetcher(), environment);
+    }
+
     @Override
     protected ExecutionResult completeValue(ExecutionContext executionContext, GraphQLType fieldType, List<Field> fields, Object result) {
         if (result instanceof Enum && fieldType instanceof GraphQLEnumType) {
             return super.completeValue(executionContext, fieldType, fields, ((GraphQLEnumType) fieldType).getCoercing().parseValue(((Enum) result).name()));
         }
+        if (result instanceof CompletionStage) {
+            Object value = null;
+            try {
+                value = ((CompletionStage<?>) result).toCompletableFuture().join();
+            } catch (CompletionException | CancellationException e) {
+                handleDataFetchingException(executionContext, e instanceof CompletionException ? e.getCause() : e);
+            }
+            return completeValue(executionContext, fieldType, fields, value);
+        }
         if (result instanceof Optional) {
             return completeValue(executionContext, fieldType, fields, ((Optional) result).orElse(null));
         }
         return super.completeValue(executionContext, fieldType, fields, result);
     }
+
+    /**
+     * Records an exception thrown while fetching data (or completing the future returned by a data fetcher)
+     * as an execution error
+     *
+     * @param executionContext execution context
+     * @param e                the exception
+     */
+    protected void handleDataFetchingException(ExecutionContext executionContext, Throwable e) {
+        log.warn("Exception while fetching data", e);
+        // execution context errors are not thread-safe
+        synchronized (executionContext) {
+            executionContext.addError(new ExceptionWhileDataFetching(e));
+        }
+    }
+
+    /**
+     * @return a copy of the errors recorded so far, taken under the lock {@link #handleDataFetchingException} records them with
+     */
+    static List<GraphQLError> errors(ExecutionContext executionContext) {
+        synchronized (executionContext) {
+            return new ArrayList<>(executionContext.getErrors());
+        }
+    }
 }
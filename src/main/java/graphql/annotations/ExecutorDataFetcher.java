@@ -0,0 +1,66 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.GraphQLException;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Data fetcher running another one on a {@link FieldExecutor}, for fields annotated with {@link GraphQLExecutor}.
+ * The enhanced execution strategies {@link #submit(DataFetchingEnvironment) submit} the fetch and complete its future
+ * while fetching other fields; other strategies call {@link #get(DataFetchingEnvironment)}, which waits for it.
+ */
+class ExecutorDataFetcher implements DataFetcher {
+    private final FieldExecutor executor;
+    private final DataFetcher dataFetcher;
+
+    ExecutorDataFetcher(FieldExecutor executor, DataFetcher dataFetcher) {
+        this.executor = executor;
+        this.dataFetcher = dataFetcher;
+    }
+
+    DataFetcher getDataFetcher() {
+        return dataFetcher;
+    }
+
+    CompletableFuture<Object> submit(DataFetchingEnvironment environment) {
+        return executor.submit(() -> dataFetcher.get(environment));
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) {
+        CompletableFuture<Object> future = submit(environment);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // e.g. the field timed out: cancelling the future interrupts the fetch
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GraphQLException("Interrupted while fetching " + environment.getFields().get(0).getName(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Named executor for data fetchers, acting as a bulkhead: at most <code>maxConcurrency</code> fetches run at once,
+ * the others wait in a queue (without holding a thread) until one completes. Cancelling the future of a fetch
+ * interrupts it.
+ */
+class FieldExecutor {
+    private final String name;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+    // set while the current thread drains the queue, so that tasks run by a direct executor don't drain it recursively
+    private final ThreadLocal<Boolean> draining = new ThreadLocal<>();
+
+    FieldExecutor(String name, Executor executor, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limit of executor " + name + " should be positive");
+        }
+        this.name = name;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    CompletableFuture<Object> submit(Supplier<Object> supplier) {
+        Task task = new Task(supplier);
+        queue.add(task);
+        drain();
+        return task.future;
+    }
+
+    private void drain() {
+        if (draining.get() != null) {
+            // the outer loop picks up the permit released by the task
+            return;
+        }
+        draining.set(Boolean.TRUE);
+        try {
+            while (!queue.isEmpty() && permits.tryAcquire()) {
+                Task task = queue.poll();
+                if (task == null) {
+                    permits.release();
+                    continue;
+                }
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    task.future.completeExceptionally(e);
+                }
+            }
+        } finally {
+            draining.remove();
+        }
+    }
+
+    private class Task implements Runnable {
+        private final Supplier<Object> supplier;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        // thread running the task, and whether it was interrupted by a cancellation, guarded by this
+        private Thread runner;
+        private boolean interrupted;
+
+        private Task(Supplier<Object> supplier) {
+            this.supplier = supplier;
+            // cancelling the future (when the field times out) interrupts the fetch
+            future.whenComplete((value, e) -> {
+                if (future.isCancelled()) {
+                    interrupt();
+                }
+            });
+        }
+
+        private synchronized void interrupt() {
+            if (runner != null) {
+                interrupted = true;
+                runner.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            // published before checking the future, so that a cancellation either skips the task or interrupts it
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            try {
+                if (!future.isDone()) {
+                    future.complete(supplier.get());
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    if (interrupted) {
+                        // clear the cancellation interrupt, so it doesn't affect the executor's next task
+                        Thread.interrupted();
+                    }
+                }
+                permits.release();
+                drain();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.schema.GraphQLFieldDefinition;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency statistics of data fetchers, by field definition, used to decide which fields are worth resolving
+ * on another thread.
+ *
+ * Latencies are exponentially weighted moving averages, so they follow changes in the behaviour of the fetchers.
+ * A field is considered expensive when its average latency exceeds a threshold, which adapts to the observed
+ * cost of offloading a field (the time it waits for a thread), and never goes below a minimum.
+ */
+public class FieldLatencyStatistics {
+
+    public static final long DEFAULT_MIN_THRESHOLD_NANOS = 50_000;
+    public static final double DEFAULT_OVERHEAD_FACTOR = 4;
+
+    // weight of the latest sample in the moving averages
+    private static final double ALPHA = 0.2;
+
+    private final long minThresholdNanos;
+    private final double overheadFactor;
+    private final Map<GraphQLFieldDefinition, MovingAverage> latencies = new ConcurrentHashMap<>();
+    private final MovingAverage offloadDelay = new MovingAverage();
+
+    public FieldLatencyStatistics() {
+        this(DEFAULT_MIN_THRESHOLD_NANOS, DEFAULT_OVERHEAD_FACTOR);
+    }
+
+    /**
+     * @param minThresholdNanos minimum latency of an expensive field, in nanoseconds
+     * @param overheadFactor    how many times the average offloading delay a field has to take to be expensive
+     */
+    public FieldLatencyStatistics(long minThresholdNanos, double overheadFactor) {
+        this.minThresholdNanos = minThresholdNanos;
+        this.overheadFactor = overheadFactor;
+    }
+
+    /**
+     * Records the time taken by the data fetcher of a field
+     *
+     * @param fieldDef     field definition
+     * @param latencyNanos latency, in nanoseconds
+     */
+    public void recordLatency(GraphQLFieldDefinition fieldDef, long latencyNanos) {
+        latencies.computeIfAbsent(fieldDef, f -> new MovingAverage()).add(latencyNanos);
+    }
+
+    /**
+     * Records the time an offloaded field waited for a thread
+     *
+     * @param delayNanos delay, in nanoseconds
+     */
+    public void recordOffloadDelay(long delayNanos) {
+        offloadDelay.add(delayNanos);
+    }
+
+    /**
+     * @return the current threshold above which a field is expensive, in nanoseconds
+     */
+    public long getThresholdNanos() {
+        return Math.max(minThresholdNanos, (long) (overheadFactor * offloadDelay.get()));
+    }
+
+    /**
+     * @param fieldDef field definition
+     *
+     * @return the average latency of the field, in nanoseconds, or -1 if it hasn't been observed yet
+     */
+    public long getLatencyNanos(GraphQLFieldDefinition fieldDef) {
+        MovingAverage latency = latencies.get(fieldDef);
+        return latency == null ? -1 : (long) latency.get();
+    }
+
+    /**
+     * @return the average latency of all observed fields, in nanoseconds
+     */
+    public Map<GraphQLFieldDefinition, Long> getLatencies() {
+        Map<GraphQLFieldDefinition, Long> result = new HashMap<>();
+        latencies.forEach((fieldDef, latency) -> result.put(fieldDef, (long) latency.get()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @param fieldDef field definition
+     *
+     * @return true if the field is expensive (or hasn't been observed yet)
+     */
+    public boolean isExpensive(GraphQLFieldDefinition fieldDef) {
+        MovingAverage latency = latencies.get(fieldDef);
+        return latency == null || latency.get() > getThresholdNanos();
+    }
+
+    private static class MovingAverage {
+        private double value;
+        private boolean initialized;
+
+        synchronized void add(long sample) {
+            value = initialized ? value + ALPHA * (sample - value) : sample;
+            initialized = true;
+        }
+
+        synchronized double get() {
+            return value;
+        }
+    }
+}
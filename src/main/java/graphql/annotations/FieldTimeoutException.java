@@ -0,0 +1,30 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.GraphQLException;
+
+/**
+ * Thrown when a field exceeds its {@link GraphQLTimeout} or the {@link RequestDeadline}
+ */
+public class FieldTimeoutException extends GraphQLException {
+
+    public FieldTimeoutException(String field, Throwable cause) {
+        super("Field " + field + " timed out");
+        if (cause != null) {
+            initCause(cause);
+        }
+    }
+}
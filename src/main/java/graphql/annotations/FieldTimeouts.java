@@ -0,0 +1,153 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs data fetchers with a timeout. A synchronous fetch is interrupted when the timeout expires, and its value
+ * (if it completes anyway) discarded. A future returned by the data fetcher is cancelled when the timeout expires.
+ */
+class FieldTimeouts {
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "graphql-field-timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private FieldTimeouts() {
+    }
+
+    /**
+     * Fetches a field with both its own timeout (if any) and the request deadline (if any). Fields running on
+     * an executor are submitted without waiting for them, the (enhanced) strategy completes their future.
+     */
+    static Object fetch(DataFetcher dataFetcher, DataFetchingEnvironment environment) {
+        long timeoutNanos = RequestDeadline.remainingNanos();
+        if (dataFetcher instanceof TimeoutDataFetcher) {
+            timeoutNanos = Math.min(timeoutNanos, ((TimeoutDataFetcher) dataFetcher).getTimeoutNanos());
+            dataFetcher = ((TimeoutDataFetcher) dataFetcher).getDataFetcher();
+        }
+        if (dataFetcher instanceof ExecutorDataFetcher) {
+            dataFetcher = ((ExecutorDataFetcher) dataFetcher)::submit;
+        }
+        if (timeoutNanos == Long.MAX_VALUE) {
+            return dataFetcher.get(environment);
+        }
+        return fetch(dataFetcher, environment, timeoutNanos);
+    }
+
+    static Object fetch(DataFetcher dataFetcher, DataFetchingEnvironment environment, long timeoutNanos) {
+        String field = environment.getFields().get(0).getName();
+        if (timeoutNanos <= 0) {
+            throw new FieldTimeoutException(field, null);
+        }
+
+        long start = System.nanoTime();
+        Interrupter interrupter = new Interrupter(Thread.currentThread());
+        interrupter.timer = SCHEDULER.schedule(interrupter, timeoutNanos, TimeUnit.NANOSECONDS);
+        Object value = null;
+        RuntimeException failure = null;
+        boolean timedOut;
+        try {
+            value = dataFetcher.get(environment);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            timedOut = interrupter.finish();
+        }
+        if (timedOut) {
+            throw new FieldTimeoutException(field, failure);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        if (value instanceof CompletionStage) {
+            return withTimeout(field, ((CompletionStage<?>) value).toCompletableFuture(), timeoutNanos - (System.nanoTime() - start));
+        }
+        return value;
+    }
+
+    private static CompletableFuture<Object> withTimeout(String field, CompletableFuture<?> future, long timeoutNanos) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> timer = SCHEDULER.schedule(() -> {
+            timedOut.set(true);
+            future.cancel(true);
+            result.completeExceptionally(new FieldTimeoutException(field, null));
+        }, Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS);
+        future.whenComplete((value, e) -> {
+            timer.cancel(false);
+            if (timedOut.get()) {
+                result.completeExceptionally(new FieldTimeoutException(field, e));
+            } else if (e == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Interrupts the fetching thread, unless the fetch is finished
+     */
+    private static class Interrupter implements Runnable {
+        private final Thread thread;
+        private ScheduledFuture<?> timer;
+        private boolean finished;
+        private boolean interrupted;
+
+        private Interrupter(Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!finished) {
+                interrupted = true;
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * @return true if the fetch timed out
+         */
+        private synchronized boolean finish() {
+            finished = true;
+            timer.cancel(false);
+            if (interrupted) {
+                // clear the interrupt, so it doesn't affect whatever the thread does next
+                Thread.interrupted();
+            }
+            return interrupted;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLTypeReference;
 import graphql.schema.GraphQLUnionType;
 import graphql.schema.PropertyDataFetcher;
 import graphql.schema.TypeResolver;
@@ -36,22 +37,27 @@ import org.osgi.service.component.annotations.Reference;
 
 import javax.validation.constraints.NotNull;
 import java.lang.reflect.AccessibleObject;
-import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -75,7 +81,12 @@ import static java.util.Objects.nonNull;
 @Component
 public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
-    private Map<String, graphql.schema.GraphQLType> typeRegistry = new HashMap<>();
+    private final TypeRegistry typeRegistry = new TypeRegistry();
+    private final TypeRegistry inputTypeRegistry = new TypeRegistry();
+    // input types derived from object types that are not backed by a class
+    private final Map<GraphQLObjectType, GraphQLInputObjectType> derivedInputTypes = Collections.synchronizedMap(new WeakHashMap<>());
+    private final ThreadLocal<Set<String>> inputsInProgress = ThreadLocal.withInitial(HashSet::new);
+    private final Map<String, FieldExecutor> executors = new ConcurrentHashMap<>();
 
     public GraphQLAnnotations() {
         defaultTypeFunction = new DefaultTypeFunction();
@@ -90,20 +101,26 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
     @Override
     public graphql.schema.GraphQLType getInterface(Class<?> iface) throws GraphQLAnnotationsException {
-        String typeName = getTypeName(iface);
-        graphql.schema.GraphQLType type = typeRegistry.get(typeName);
-        if (type != null) { // type already exists, do not build a new new one
-            return type;
+        graphql.schema.GraphQLType type = getInterfaceOrReference(iface);
+        // the interface is being built further up the stack, so it can only be referred to by a copy
+        return type instanceof GraphQLTypeReference ? buildInterface(iface) : type;
+    }
+
+    private graphql.schema.GraphQLType getInterfaceOrReference(Class<?> iface) {
+        if (iface.getAnnotation(GraphQLUnion.class) == null && !iface.isAnnotationPresent(GraphQLTypeResolver.class)) {
+            return getObjectOrReference(iface);
         }
+        return typeRegistry.getOrBuild(iface, getTypeName(iface), this::buildInterface);
+    }
+
+    private graphql.schema.GraphQLType buildInterface(Class<?> iface) {
         if (iface.getAnnotation(GraphQLUnion.class) != null) {
-            type = getUnionBuilder(iface).build();
+            return getUnionBuilder(iface).build();
         } else if (!iface.isAnnotationPresent(GraphQLTypeResolver.class)) {
-            type = getObject(iface);
+            return buildObject(iface);
         } else {
-            type = getIfaceBuilder(iface).build();
+            return getIfaceBuilder(iface).build();
         }
-        typeRegistry.put(typeName, type);
-        return type;
     }
 
     public static graphql.schema.GraphQLType iface(Class<?> iface) throws GraphQLAnnotationsException {
@@ -119,9 +136,9 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
         GraphQLUnion unionAnnotation = iface.getAnnotation(GraphQLUnion.class);
         builder.name(getTypeName(iface));
-        GraphQLDescription description = iface.getAnnotation(GraphQLDescription.class);
+        String description = ClassMetadata.of(iface).getDescription();
         if (description != null) {
-            builder.description(description.value());
+            builder.description(description);
         }
         GraphQLType typeAnnotation = iface.getAnnotation(GraphQLType.class);
 
@@ -151,8 +168,7 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
     }
 
     public String getTypeName(Class<?> objectClass) {
-        GraphQLName name = objectClass.getAnnotation(GraphQLName.class);
-        return (name == null ? objectClass.getSimpleName() : name.value());
+        return ClassMetadata.of(objectClass).getTypeName();
     }
 
     @Override
@@ -164,9 +180,9 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
         GraphQLInterfaceType.Builder builder = newInterface();
 
         builder.name(getTypeName(iface));
-        GraphQLDescription description = iface.getAnnotation(GraphQLDescription.class);
+        String description = ClassMetadata.of(iface).getDescription();
         if (description != null) {
-            builder.description(description.value());
+            builder.description(description);
         }
         for (Method method : getOrderedMethods(iface)) {
             boolean valid = !Modifier.isStatic(method.getModifiers()) &&
@@ -185,94 +201,116 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
         return getInstance().getIfaceBuilder(iface);
     }
 
-    private static Boolean isGraphQLField(AnnotatedElement element) {
-        GraphQLField annotation = element.getAnnotation(GraphQLField.class);
-        if (annotation == null) {
-            return null;
-        }
-        return annotation.value();
+    @Override
+    public GraphQLObjectType getObject(Class<?> object) throws GraphQLAnnotationsException {
+        graphql.schema.GraphQLType type = getObjectOrReference(object);
+        // the object is being built further up the stack, so it can only be referred to by a copy
+        return type instanceof GraphQLObjectType ? (GraphQLObjectType) type : buildObject(object);
     }
 
-    /**
-     * breadthFirst parental ascent looking for closest method declaration with explicit annotation
-     *
-     * @param method The method to match
-     * @return The closest GraphQLField annotation
-     */
-    private boolean breadthFirstSearch(Method method) {
-        final List<Class<?>> queue = new LinkedList<>();
-        final String methodName = method.getName();
-        final Class<?>[] parameterTypes = method.getParameterTypes();
-        queue.add(method.getDeclaringClass());
-        do {
-            Class<?> cls = queue.remove(0);
-
-            try {
-                method = cls.getDeclaredMethod(methodName, parameterTypes);
-                Boolean gqf = isGraphQLField(method);
-                if (gqf != null) {
-                    return gqf;
-                }
-            } catch (NoSuchMethodException e) {
-            }
+    private graphql.schema.GraphQLType getObjectOrReference(Class<?> object) {
+        return typeRegistry.getOrBuild(object, getTypeName(object), this::buildObject);
+    }
 
-            Boolean gqf = isGraphQLField(cls);
-            if (gqf != null) {
-                return gqf;
-            }
+    private GraphQLObjectType buildObject(Class<?> object) {
+        GraphQLObjectType.Builder builder = getObjectBuilder(object);
 
-            // add interfaces to places to search
-            for (Class<?> iface : cls.getInterfaces()) {
-                queue.add(iface);
-            }
-            // add parent class to places to search
-            Class<?> nxt = cls.getSuperclass();
-            if (nxt != null) {
-                queue.add(nxt);
-            }
-        } while (!queue.isEmpty());
-        return false;
+        return new GraphQLObjectTypeWrapper(object, builder.build());
     }
 
     /**
-     * direct parental ascent looking for closest declaration with explicit annotation
+     * Type lookup for {@link DefaultTypeFunction}: unlike {@link #getObject(Class)} and {@link #getInterface(Class)},
+     * this returns a {@link GraphQLTypeReference} for types that are still being built
+     *
+     * @param aClass object or interface class
      *
-     * @param field The field to find
-     * @return The closest GraphQLField annotation
+     * @return the GraphQL type or a reference to it
      */
-    private boolean parentalSearch(Field field) {
-        Boolean gqf = isGraphQLField(field);
-        if (gqf != null) {
-            return gqf;
-        }
-        Class<?> cls = field.getDeclaringClass();
+    graphql.schema.GraphQLType getTypeOrReference(Class<?> aClass) {
+        return aClass.isInterface() ? getInterfaceOrReference(aClass) : getObjectOrReference(aClass);
+    }
 
-        do {
-            gqf = isGraphQLField(cls);
-            if (gqf != null) {
-                return gqf;
-            }
-            cls = cls.getSuperclass();
-        } while (cls != null);
-        return false;
+    public static GraphQLObjectType object(Class<?> object) throws GraphQLAnnotationsException {
+        return getInstance().getObject(object);
     }
 
-    @Override
-    public GraphQLObjectType getObject(Class<?> object) throws GraphQLAnnotationsException {
-        GraphQLObjectType.Builder builder = getObjectBuilder(object);
+    /**
+     * Builds GraphQL types for a number of object and interface classes in parallel, on the common fork-join pool
+     *
+     * @param classes object and interface classes to examine
+     *
+     * @return the types, by class, in the iteration order of <code>classes</code>
+     *
+     * @throws GraphQLAnnotationsException if any of the classes cannot be examined
+     * @see #getTypes(Collection, ForkJoinPool)
+     */
+    public Map<Class<?>, graphql.schema.GraphQLType> getTypes(Collection<Class<?>> classes) throws GraphQLAnnotationsException {
+        return getTypes(classes, ForkJoinPool.commonPool());
+    }
 
-        return new GraphQLObjectTypeWrapper(object, builder.build());
+    /**
+     * Builds GraphQL types for a number of object and interface classes in parallel, the same way
+     * {@link #getObject(Class)} and {@link #getInterface(Class)} would build them, and sharing the types built so far.
+     * A class may still be built more than once: a type is built again where the types it refers to aren't reachable,
+     * and a copy is built where waiting for another thread's build would close a cycle.
+     *
+     * As with {@link #getObject(Class)}, every {@link GraphQLTypeReference} held by a returned type refers to a type
+     * reachable from it, so any of them can be used as the root of a schema on its own.
+     *
+     * @param classes object and interface classes to examine
+     * @param pool    pool to build the types on
+     *
+     * @return the types, by class, in the iteration order of <code>classes</code>
+     *
+     * @throws GraphQLAnnotationsException if any of the classes cannot be examined
+     */
+    public Map<Class<?>, graphql.schema.GraphQLType> getTypes(Collection<Class<?>> classes, ForkJoinPool pool) throws GraphQLAnnotationsException {
+        Map<Class<?>, ForkJoinTask<graphql.schema.GraphQLType>> tasks = new LinkedHashMap<>();
+        for (Class<?> c : classes) {
+            tasks.put(c, pool.submit(() -> c.isInterface() ? getInterface(c) : getObject(c)));
+        }
+        Map<Class<?>, graphql.schema.GraphQLType> types = new LinkedHashMap<>();
+        tasks.forEach((c, task) -> types.put(c, task.join()));
+        return types;
     }
 
-    public static GraphQLObjectType object(Class<?> object) throws GraphQLAnnotationsException {
-        return getInstance().getObject(object);
+    public static Map<Class<?>, graphql.schema.GraphQLType> types(Collection<Class<?>> classes) throws GraphQLAnnotationsException {
+        return getInstance().getTypes(classes);
     }
 
     public static class GraphQLFieldDefinitionWrapper extends GraphQLFieldDefinition {
 
+        private final int cost;
+        private final int multiplier;
+
         public GraphQLFieldDefinitionWrapper(GraphQLFieldDefinition fieldDefinition) {
+            this(fieldDefinition, 1, 0);
+        }
+
+        /**
+         * @param fieldDefinition field definition
+         * @param cost            cost of fetching the field
+         * @param multiplier      expected number of items of a list or connection field, 0 if unknown
+         */
+        public GraphQLFieldDefinitionWrapper(GraphQLFieldDefinition fieldDefinition, int cost, int multiplier) {
             super(fieldDefinition.getName(), fieldDefinition.getDescription(), fieldDefinition.getType(),
                     fieldDefinition.getDataFetcher(), fieldDefinition.getArguments(), fieldDefinition.getDeprecationReason());
+            this.cost = cost;
+            this.multiplier = multiplier;
+        }
+
+        /**
+         * @return cost of fetching the field, see {@link GraphQLCost#value()}
+         */
+        public int getCost() {
+            return cost;
+        }
+
+        /**
+         * @return expected number of items of a list or connection field, 0 if unknown, see {@link GraphQLCost#multiplier()}
+         */
+        public int getMultiplier() {
+            return multiplier;
         }
 
         @Override
@@ -285,26 +323,20 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
     @Override
     public GraphQLObjectType.Builder getObjectBuilder(Class<?> object) throws GraphQLAnnotationsException {
         GraphQLObjectType.Builder builder = newObject();
+        ClassMetadata metadata = ClassMetadata.of(object);
         builder.name(getTypeName(object));
-        GraphQLDescription description = object.getAnnotation(GraphQLDescription.class);
-        if (description != null) {
-            builder.description(description.value());
+        if (metadata.getDescription() != null) {
+            builder.description(metadata.getDescription());
         }
 
         for (Method method : getOrderedMethods(object)) {
-            if(method.isBridge() || method.isSynthetic()) {
-                continue;
-            }
-            if (breadthFirstSearch(method)) {
+            if (metadata.isGraphQLField(method)) {
                 builder.field(getField(method));
             }
         }
 
         for (Field field : getAllFields(object).values()) {
-            if(Modifier.isStatic(field.getModifiers())) {
-                continue;
-            }
-            if (parentalSearch(field)) {
+            if (metadata.isGraphQLField(field)) {
                 builder.field(getField(field));
             }
         }
@@ -323,25 +355,11 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
 
     protected List<Method> getOrderedMethods(Class c) {
-        return Arrays.stream(c.getMethods())
-                .sorted(Comparator.comparing(Method::getName))
-                .collect(Collectors.toList());
+        return new ArrayList<>(ClassMetadata.of(c).getOrderedMethods());
     }
 
     protected Map<String, Field> getAllFields(Class c) {
-        Map<String, Field> fields;
-
-        if (c.getSuperclass() != null) {
-            fields = getAllFields(c.getSuperclass());
-        } else {
-            fields = new TreeMap<>();
-        }
-
-        for (Field f : c.getDeclaredFields()) {
-            fields.put(f.getName(), f);
-        }
-
-        return fields;
+        return new TreeMap<>(ClassMetadata.of(c).getAllFields());
     }
 
 
@@ -401,61 +419,54 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
         if (actualDataFetcher == null) {
 
-            StringBuilder fluentBuffer = new StringBuilder(field.getName());
-            fluentBuffer.setCharAt(0, Character.toLowerCase(fluentBuffer.charAt(0)));
-            String fluentGetter = fluentBuffer.toString();
-
-            boolean hasFluentGetter = false;
-            Method fluentMethod = null;
-            try {
-                fluentMethod = field.getDeclaringClass().getMethod(fluentGetter);
-                hasFluentGetter = true;
-            } catch (NoSuchMethodException x) {
-            }
+            ClassMetadata metadata = ClassMetadata.of(field.getDeclaringClass());
+            String fieldName = field.getName();
+            Method fluentMethod = metadata.getNoArgMethod(Character.isLowerCase(fieldName.charAt(0)) ? fieldName :
+                    Character.toLowerCase(fieldName.charAt(0)) + fieldName.substring(1));
 
             // if there is getter for fields type, use propertyDataFetcher, otherwise use method directly
+            Method getter;
             if (outputType == GraphQLBoolean || (outputType instanceof GraphQLNonNull && ((GraphQLNonNull) outputType).getWrappedType() == GraphQLBoolean)) {
-                if (checkIfPrefixGetterExists(field.getDeclaringClass(), "is", field.getName()) ||
-                        checkIfPrefixGetterExists(field.getDeclaringClass(), "get", field.getName())) {
-                    actualDataFetcher = new PropertyDataFetcher(field.getName());
+                getter = metadata.getNoArgMethod(ClassMetadata.getterName("is", fieldName));
+                if (getter == null) {
+                    getter = metadata.getNoArgMethod(ClassMetadata.getterName("get", fieldName));
                 }
-            } else if (checkIfPrefixGetterExists(field.getDeclaringClass(), "get", field.getName())) {
+            } else {
+                getter = metadata.getNoArgMethod(ClassMetadata.getterName("get", fieldName));
+            }
+            if (getter != null) {
                 actualDataFetcher = new PropertyDataFetcher(field.getName());
-            } else if (hasFluentGetter) {
+                // accessors read instance getters only
+                if (generateAccessors && !Modifier.isStatic(getter.getModifiers())) {
+                    actualDataFetcher = AccessorDataFetcher.getter(getter, actualDataFetcher);
+                }
+            } else if (fluentMethod != null) {
                 actualDataFetcher = new MethodDataFetcher(fluentMethod, typeFunction);
             }
 
             if (actualDataFetcher == null) {
                 actualDataFetcher = new FieldDataFetcher(field.getName());
+                // FieldDataFetcher only reads public fields
+                if (generateAccessors && Modifier.isPublic(field.getModifiers())) {
+                    actualDataFetcher = AccessorDataFetcher.field(field, actualDataFetcher);
+                }
             }
         }
 
 
         if (isConnection) {
-            actualDataFetcher = new ConnectionDataFetcher(field.getAnnotation(GraphQLConnection.class).connection(), actualDataFetcher);
+            actualDataFetcher = new ConnectionDataFetcher(field, actualDataFetcher);
         }
 
-        builder.dataFetcher(actualDataFetcher);
+        builder.dataFetcher(withTimeout(field, onExecutor(field, actualDataFetcher)));
 
-        return new GraphQLFieldDefinitionWrapper(builder.build());
+        return wrap(field, builder.build());
     }
 
     protected GraphQLFieldDefinition field(Field field) throws IllegalAccessException, InstantiationException {
         return getInstance().getField(field);
     }
 
-    // check if there is getter for field, basic functionality taken from PropertyDataFetcher
-    private boolean checkIfPrefixGetterExists(Class c, String prefix, String propertyName) {
-        String getterName = prefix + propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
-        try {
-            Method method = c.getMethod(getterName);
-        } catch (NoSuchMethodException x) {
-            return false;
-        }
-
-        return true;
-    }
-
     private GraphQLOutputType getGraphQLConnection(boolean isConnection, AccessibleObject field, GraphQLOutputType type, GraphQLOutputType outputType, GraphQLFieldDefinition.Builder builder) {
         if (isConnection) {
             if (type instanceof GraphQLList) {
@@ -494,8 +505,9 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
         }
         AnnotatedType annotatedReturnType = method.getAnnotatedReturnType();
 
+        GraphQLBatched batched = method.getAnnotation(GraphQLBatched.class);
         TypeFunction outputTypeFunction;
-        if (method.getAnnotation(GraphQLBatched.class) != null) {
+        if (batched != null && batched.value().isEmpty()) {
             outputTypeFunction = new BatchedTypeFunction(typeFunction);
         } else {
             outputTypeFunction = typeFunction;
@@ -512,7 +524,7 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
         TypeFunction finalTypeFunction = typeFunction;
         List<GraphQLArgument> args = Arrays.asList(method.getParameters()).stream().
-                filter(p -> !DataFetchingEnvironment.class.isAssignableFrom(p.getType())).
+                filter(p -> !DataFetchingEnvironment.class.isAssignableFrom(p.getType()) && p.getType() != PageRequest.class).
                 map(parameter -> {
                     Class<?> t = parameter.getType();
                     graphql.schema.GraphQLType graphQLType = finalTypeFunction.apply(t, parameter.getAnnotatedType());
@@ -559,7 +571,9 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
         GraphQLDataFetcher dataFetcher = method.getAnnotation(GraphQLDataFetcher.class);
         DataFetcher actualDataFetcher;
-        if (dataFetcher == null && method.getAnnotation(GraphQLBatched.class) != null) {
+        if (dataFetcher == null && batched != null && !batched.value().isEmpty()) {
+            actualDataFetcher = new BatchLoaderDataFetcher(method, batched.value(), typeFunction);
+        } else if (dataFetcher == null && batched != null) {
             actualDataFetcher = new BatchedMethodDataFetcher(method, typeFunction);
         } else if (dataFetcher == null) {
             actualDataFetcher = new MethodDataFetcher(method, typeFunction);
@@ -572,12 +586,35 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
         }
 
         if (isConnection) {
-            actualDataFetcher = new ConnectionDataFetcher(method.getAnnotation(GraphQLConnection.class).connection(), actualDataFetcher);
+            actualDataFetcher = new ConnectionDataFetcher(method, actualDataFetcher);
         }
 
-        builder.dataFetcher(actualDataFetcher);
+        builder.dataFetcher(withTimeout(method, onExecutor(method, actualDataFetcher)));
 
-        return new GraphQLFieldDefinitionWrapper(builder.build());
+        return wrap(method, builder.build());
+    }
+
+    private DataFetcher onExecutor(AccessibleObject element, DataFetcher dataFetcher) {
+        GraphQLExecutor annotation = element.getAnnotation(GraphQLExecutor.class);
+        if (annotation == null) {
+            return dataFetcher;
+        }
+        FieldExecutor executor = executors.get(annotation.value());
+        if (executor == null) {
+            throw new GraphQLAnnotationsException("Unknown executor " + annotation.value() + " for " + element, null);
+        }
+        return new ExecutorDataFetcher(executor, dataFetcher);
+    }
+
+    private GraphQLFieldDefinition wrap(AccessibleObject element, GraphQLFieldDefinition fieldDefinition) {
+        GraphQLCost cost = element.getAnnotation(GraphQLCost.class);
+        return cost == null ? new GraphQLFieldDefinitionWrapper(fieldDefinition) :
+                new GraphQLFieldDefinitionWrapper(fieldDefinition, cost.value(), cost.multiplier());
+    }
+
+    private DataFetcher withTimeout(AccessibleObject element, DataFetcher dataFetcher) {
+        GraphQLTimeout annotation = element.getAnnotation(GraphQLTimeout.class);
+        return annotation == null ? dataFetcher : new TimeoutDataFetcher(annotation.value(), dataFetcher);
     }
 
     protected static GraphQLFieldDefinition field(Method method) throws InstantiationException, IllegalAccessException {
@@ -585,23 +622,69 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
     }
 
+    /**
+     * Derives an input object type from an object type. Input types are derived once per source type
+     * (per class for annotated classes) and shared by all the arguments and input fields using them.
+     *
+     * @param graphQLType the object type
+     *
+     * @return the input object type
+     *
+     * @throws GraphQLAnnotationsException if the object type refers to itself, input types can't be recursive
+     */
     @Override
-    public GraphQLInputObjectType getInputObject(GraphQLObjectType graphQLType) {
-        GraphQLObjectType object = graphQLType;
-        return new GraphQLInputObjectType(object.getName(), object.getDescription(),
-                object.getFieldDefinitions().stream().
-                        map(field -> {
-                            GraphQLOutputType type = field.getType();
-                            GraphQLInputType inputType;
-                            if (type instanceof GraphQLObjectType) {
-                                inputType = getInputObject((GraphQLObjectType) type);
-                            } else {
-                                inputType = (GraphQLInputType) type;
-                            }
-
-                            return new GraphQLInputObjectField(field.getName(), field.getDescription(), inputType, null);
-                        }).
-                        collect(Collectors.toList()));
+    public GraphQLInputObjectType getInputObject(GraphQLObjectType graphQLType) throws GraphQLAnnotationsException {
+        graphql.schema.GraphQLType inputType;
+        if (graphQLType instanceof GraphQLObjectBackedByClass) {
+            Class<?> objectClass = ((GraphQLObjectBackedByClass) graphQLType).getObjectClass();
+            inputType = inputTypeRegistry.getOrBuild(objectClass, graphQLType.getName(), c -> buildInputObject(graphQLType));
+        } else {
+            inputType = derivedInputTypes.get(graphQLType);
+            if (inputType == null) {
+                inputType = buildInputObject(graphQLType);
+                derivedInputTypes.putIfAbsent(graphQLType, (GraphQLInputObjectType) inputType);
+            }
+        }
+        if (!(inputType instanceof GraphQLInputObjectType)) {
+            throw new GraphQLAnnotationsException("Recursive input type " + graphQLType.getName() + " is not supported", null);
+        }
+        return (GraphQLInputObjectType) inputType;
+    }
+
+    private GraphQLInputObjectType buildInputObject(GraphQLObjectType object) {
+        Set<String> inProgress = inputsInProgress.get();
+        if (!inProgress.add(object.getName())) {
+            throw new GraphQLAnnotationsException("Recursive input type " + object.getName() + " is not supported", null);
+        }
+        try {
+            return new GraphQLInputObjectType(object.getName(), object.getDescription(),
+                    object.getFieldDefinitions().stream().
+                            map(field -> new GraphQLInputObjectField(field.getName(), field.getDescription(),
+                                    getInputType(field.getType()), null)).
+                            collect(Collectors.toList()));
+        } finally {
+            inProgress.remove(object.getName());
+        }
+    }
+
+    private GraphQLInputType getInputType(graphql.schema.GraphQLType type) {
+        if (type instanceof GraphQLNonNull) {
+            return new GraphQLNonNull(getInputType(((GraphQLNonNull) type).getWrappedType()));
+        }
+        if (type instanceof GraphQLList) {
+            return new GraphQLList(getInputType(((GraphQLList) type).getWrappedType()));
+        }
+        if (type instanceof GraphQLTypeReference) {
+            graphql.schema.GraphQLType referenced = typeRegistry.getTypesByName().get(type.getName());
+            if (!(referenced instanceof GraphQLObjectType)) {
+                throw new GraphQLAnnotationsException("Recursive input type " + type.getName() + " is not supported", null);
+            }
+            type = referenced;
+        }
+        if (type instanceof GraphQLObjectType) {
+            return getInputObject((GraphQLObjectType) type);
+        }
+        return (GraphQLInputType) type;
     }
 
     public static GraphQLInputObjectType inputObject(GraphQLObjectType graphQLType) {
@@ -631,6 +714,8 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
 
     protected TypeFunction defaultTypeFunction;
 
+    private boolean generateAccessors = true;
+
     @Reference(target = "(type=default)")
     public void setDefaultTypeFunction(TypeFunction function) {
         defaultTypeFunction = function;
@@ -645,57 +730,74 @@ public class GraphQLAnnotations implements GraphQLAnnotationsProcessor {
         getInstance().registerType(typeFunction);
     }
 
-    public Map<String, graphql.schema.GraphQLType> getTypeRegistry() {
-        return typeRegistry;
-    }
-
-    private static class ConnectionDataFetcher implements DataFetcher {
-        private final Class<? extends Connection> connection;
-        private final DataFetcher actualDataFetcher;
-        private final Constructor<Connection> constructor;
-
-        public ConnectionDataFetcher(Class<? extends Connection> connection, DataFetcher actualDataFetcher) {
-            this.connection = connection;
-            Optional<Constructor<Connection>> constructor =
-                    Arrays.asList(connection.getConstructors()).stream().
-                            filter(c -> c.getParameterCount() == 1).
-                            map(c -> (Constructor<Connection>) c).
-                            findFirst();
-            if (constructor.isPresent()) {
-                this.constructor = constructor.get();
-            } else {
-                throw new IllegalArgumentException(connection + " doesn't have a single argument constructor");
-            }
-            this.actualDataFetcher = actualDataFetcher;
-        }
+    /**
+     * Controls how annotated Java fields are read. By default, an accessor is compiled for the
+     * field (or its getter) once, when the field is built; setting this to <code>false</code>
+     * falls back to graphql-java's reflective {@link PropertyDataFetcher} and {@link FieldDataFetcher}.
+     *
+     * @param generateAccessors whether to generate accessors for fields built from now on
+     */
+    public void setGenerateAccessors(boolean generateAccessors) {
+        this.generateAccessors = generateAccessors;
+    }
 
-        @Override
-        public Object get(DataFetchingEnvironment environment) {
-            // Exclude arguments
-            DataFetchingEnvironment env = new DataFetchingEnvironment(environment.getSource(), new HashMap<>(), environment.getContext(),
-                    environment.getFields(), environment.getFieldType(), environment.getParentType(), environment.getGraphQLSchema());
-            Connection conn = constructNewInstance(constructor, actualDataFetcher.get(env));
-            return conn.get(environment);
-        }
+    public boolean isGenerateAccessors() {
+        return generateAccessors;
+    }
+
+    /**
+     * Registers an executor for the fields annotated with {@link GraphQLExecutor}, without a concurrency limit
+     *
+     * @param name     name of the executor
+     * @param executor executor running the data fetchers
+     */
+    public void registerExecutor(String name, Executor executor) {
+        registerExecutor(name, executor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Registers an executor for the fields annotated with {@link GraphQLExecutor}. At most <code>maxConcurrency</code>
+     * data fetchers run on it at once, the others are queued. Executors have to be registered before
+     * the fields using them are built.
+     *
+     * @param name           name of the executor
+     * @param executor       executor running the data fetchers
+     * @param maxConcurrency maximum number of data fetchers running at once
+     */
+    public void registerExecutor(String name, Executor executor, int maxConcurrency) {
+        executors.put(name, new FieldExecutor(name, executor, maxConcurrency));
+    }
+
+    /**
+     * Types are looked up by class, so this map can't be used to register types: it is a read-only view.
+     *
+     * @return types built by this instance so far, by GraphQL name
+     */
+    public Map<String, graphql.schema.GraphQLType> getTypeRegistry() {
+        return typeRegistry.getTypesByName();
     }
 
     private class UnionTypeResolver implements TypeResolver {
-        private final Map<Class<?>, graphql.schema.GraphQLType> types = new HashMap<>();
+        private final Class<?>[] classes;
+        private final Map<Class<?>, GraphQLObjectType> types = new ConcurrentHashMap<>();
 
         public UnionTypeResolver(Class<?>[] classes) {
-            Arrays.asList(classes).stream().
-                    forEach(c -> types.put(c, defaultTypeFunction.apply(c, null)));
+            this.classes = classes;
         }
 
         @Override
         public GraphQLObjectType getType(Object object) {
-            Optional<Map.Entry<Class<?>, graphql.schema.GraphQLType>> maybeType = types.entrySet().
-                    stream().filter(e -> e.getKey().isAssignableFrom(object.getClass())).findFirst();
-            if (maybeType.isPresent()) {
-                return (GraphQLObjectType) maybeType.get().getValue();
-            } else {
-                throw new RuntimeException("Unknown type " + object.getClass());
+            return types.computeIfAbsent(object.getClass(), this::resolve);
+        }
+
+        // possible types are resolved lazily, they may still be in the making when the union is built
+        private GraphQLObjectType resolve(Class<?> objectClass) {
+            for (Class<?> c : classes) {
+                if (c.isAssignableFrom(objectClass)) {
+                    return getObject(c);
+                }
             }
+            throw new RuntimeException("Unknown type " + objectClass);
         }
     }
 }
@@ -22,4 +22,17 @@ import java.lang.annotation.Target;
 @Target({ElementType.METHOD, ElementType.FIELD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface GraphQLBatched {
+    /**
+     * Name of a static method of the same class that does what the annotated method does, for a number of objects
+     * at once. It takes a <code>List</code> of objects, followed by the parameters of the annotated method, and returns
+     * either a <code>List</code> of values (in the same order) or a <code>Map</code> of values by object.
+     *
+     * When set, {@link BatchedEnhancedExecutionStrategy} replaces the calls to the annotated (instance) method for the
+     * objects of an execution level with a single call to the batch method (per set of arguments). Other strategies
+     * call the annotated method.
+     *
+     * When not set, the annotated method must be static and is batched by graphql-java's
+     * {@link graphql.execution.batched.BatchedExecutionStrategy}.
+     */
+    String value() default "";
 }
@@ -42,4 +42,11 @@ public @interface GraphQLConnection {
      * @return the wrapped type's name
      */
     String name() default "";
+
+    /**
+     * Codec of the cursors, for connection classes with a constructor taking a {@link CursorCodec} as
+     * second argument (like the built-in ones)
+     * @return a cursor codec class, with a public no-argument constructor
+     */
+    Class<? extends CursorCodec> cursorCodec() default DefaultCursorCodec.class;
 }
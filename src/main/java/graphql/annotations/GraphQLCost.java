@@ -0,0 +1,42 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Cost of a field, used by {@link QueryCostAnalyzer} to estimate the worst-case cost of a query before executing it.
+ * Fields without this annotation cost 1.
+ */
+@Target({ElementType.METHOD, ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GraphQLCost {
+    /**
+     * @return cost of fetching the field (once)
+     */
+    int value() default 1;
+
+    /**
+     * Expected (maximum) number of items of a list or {@link GraphQLConnection} field, by which the cost of the
+     * selected subfields is multiplied. The <code>first</code> or <code>last</code> argument of a connection
+     * takes precedence. When not set, the analyzer's default list size is used.
+     *
+     * @return number of items
+     */
+    int multiplier() default 0;
+}
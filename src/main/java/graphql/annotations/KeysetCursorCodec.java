@@ -0,0 +1,153 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Cursor codec for keyset pagination over composite keys: a key is either a single value or a list of values
+ * (for instance a timestamp and an id), each of them null, a Boolean, Integer, Long, Double or String.
+ * Keys are serialized with their types, and Base64 encoded into opaque cursors; lists are decoded as lists.
+ *
+ * Offsets are encoded like {@link DefaultCursorCodec} does.
+ */
+public class KeysetCursorCodec extends DefaultCursorCodec {
+
+    private static final char KEY = 'k';
+
+    private static final byte NULL = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte STRING = 5;
+    private static final byte LIST = 6;
+
+    // lengths are written as unsigned shorts
+    private static final int MAX_LENGTH = 0xFFFF;
+
+    @Override
+    public String encodeKey(Object key) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, key, true);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return KEY + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    @Override
+    public Object decodeKey(String cursor) {
+        if (cursor == null || cursor.isEmpty() || cursor.charAt(0) != KEY) {
+            throw invalid(cursor);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor.substring(1))))) {
+            Object key = read(in, true);
+            if (in.read() != -1) {
+                throw invalid(cursor);
+            }
+            return key;
+        } catch (IOException | IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static void write(DataOutputStream out, Object value, boolean composite) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            String string = (String) value;
+            if (utfLength(string) > MAX_LENGTH) {
+                throw new IllegalArgumentException("Cursor key strings can't be longer than " + MAX_LENGTH + " bytes of UTF-8");
+            }
+            out.writeByte(STRING);
+            out.writeUTF(string);
+        } else if (value instanceof List && composite) {
+            List<?> values = (List<?>) value;
+            if (values.size() > MAX_LENGTH) {
+                throw new IllegalArgumentException("Composite cursor keys can't have more than " + MAX_LENGTH + " values");
+            }
+            out.writeByte(LIST);
+            out.writeShort(values.size());
+            for (Object v : values) {
+                write(out, v, false);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported cursor key " + value);
+        }
+    }
+
+    /**
+     * @return the length of the string in modified UTF-8, as written by {@link DataOutputStream#writeUTF(String)}
+     */
+    private static int utfLength(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return length;
+    }
+
+    private static Object read(DataInputStream in, boolean composite) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case BOOLEAN:
+                return in.readBoolean();
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case STRING:
+                return in.readUTF();
+            case LIST:
+                if (!composite) {
+                    throw new IllegalArgumentException("Nested composite keys aren't supported");
+                }
+                int size = in.readUnsignedShort();
+                List<Object> values = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    values.add(read(in, false));
+                }
+                return values;
+            default:
+                throw new IllegalArgumentException("Unknown key type " + type);
+        }
+    }
+}
@@ -14,12 +14,107 @@
  */
 package graphql.annotations;
 
+import graphql.relay.ConnectionCursor;
+import graphql.relay.Edge;
+import graphql.relay.PageInfo;
 import graphql.relay.SimpleListConnection;
+import graphql.schema.DataFetchingEnvironment;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
 
+/**
+ * {@link SimpleListConnection} with cursors encoded by a {@link CursorCodec}: a cursor is the index of its node.
+ */
 public class ListConnection extends SimpleListConnection implements Connection {
+
+    private final List<?> data;
+    private final CursorCodec cursorCodec;
+
     public ListConnection(List<?> data) {
+        this(data, DefaultCursorCodec.INSTANCE);
+    }
+
+    public ListConnection(List<?> data, CursorCodec cursorCodec) {
         super(data);
+        this.data = data;
+        this.cursorCodec = cursorCodec;
+    }
+
+    /**
+     * Slices the list arithmetically: the window is computed from the arguments, and edges are only created for it.
+     * Random access lists are read by index, others through a sub list iterator.
+     */
+    @Override
+    public Object get(DataFetchingEnvironment environment) {
+
+        int size = data.size();
+        int afterOffset = getOffsetFromCursor(environment.<String>getArgument("after"), -1);
+        // 0 <= begin <= end <= size, whatever the cursors
+        int begin = (int) Math.min(Math.max(afterOffset, -1) + 1L, size);
+        int beforeOffset = getOffsetFromCursor(environment.<String>getArgument("before"), size);
+        int end = Math.max(Math.min(beforeOffset, size), begin);
+
+        Integer first = environment.<Integer>getArgument("first");
+        Integer last = environment.<Integer>getArgument("last");
+
+        int from = begin;
+        int to = end;
+        if (first != null) {
+            to = (int) Math.min(to, (long) from + Math.max(first, 0));
+        }
+        if (last != null) {
+            from = Math.max(from, to - Math.max(last, 0));
+        }
+
+        if (from >= to) {
+            return emptyConnection();
+        }
+
+        List<Edge> edges = new ArrayList<>(to - from);
+        if (data instanceof RandomAccess) {
+            for (int i = from; i < to; i++) {
+                edges.add(new Edge(data.get(i), new ConnectionCursor(createCursor(i))));
+            }
+        } else {
+            int ix = from;
+            for (Object object : data.subList(from, to)) {
+                edges.add(new Edge(object, new ConnectionCursor(createCursor(ix++))));
+            }
+        }
+
+        PageInfo pageInfo = new PageInfo();
+        pageInfo.setStartCursor(edges.get(0).getCursor());
+        pageInfo.setEndCursor(edges.get(edges.size() - 1).getCursor());
+        pageInfo.setHasPreviousPage(from > begin);
+        pageInfo.setHasNextPage(to < end);
+
+        graphql.relay.Connection connection = new graphql.relay.Connection();
+        connection.setEdges(edges);
+        connection.setPageInfo(pageInfo);
+
+        return connection;
+    }
+
+    private graphql.relay.Connection emptyConnection() {
+        graphql.relay.Connection connection = new graphql.relay.Connection();
+        connection.setPageInfo(new PageInfo());
+        return connection;
+    }
+
+    @Override
+    public ConnectionCursor cursorForObjectInConnection(Object object) {
+        int index = data.indexOf(object);
+        return new ConnectionCursor(createCursor(index));
+    }
+
+    private int getOffsetFromCursor(String cursor, int defaultValue) {
+        if (cursor == null) return defaultValue;
+        return cursorCodec.decodeOffset(cursor);
+    }
+
+    private String createCursor(int offset) {
+        return cursorCodec.encodeOffset(offset);
     }
 }
@@ -19,14 +19,11 @@ import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLObjectType;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Map;
 
 import static graphql.annotations.ReflectionKit.constructNewInstance;
 import static graphql.annotations.ReflectionKit.constructor;
@@ -35,6 +32,14 @@ import static graphql.annotations.ReflectionKit.newInstance;
 class MethodDataFetcher implements DataFetcher {
     private final Method method;
     private final TypeFunction typeFunction;
+    private final MethodInvoker invoker;
+    private final boolean isStatic;
+    private final boolean invokeDetached;
+    // argument binding plan, indexed by parameter position: GraphQL argument names
+    // (null for an injected DataFetchingEnvironment or PageRequest) and input object constructors
+    private final String[] argumentNames;
+    private final Constructor<?>[] inputConstructors;
+    private final boolean[] pageRequests;
 
     public MethodDataFetcher(Method method) {
         this(method, new DefaultTypeFunction());
@@ -43,47 +48,74 @@ class MethodDataFetcher implements DataFetcher {
     public MethodDataFetcher(Method method, TypeFunction typeFunction) {
         this.method = method;
         this.typeFunction = typeFunction;
+        this.invoker = MethodInvoker.of(method);
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+        this.invokeDetached = method.getAnnotation(GraphQLInvokeDetached.class) != null;
+
+        Parameter[] parameters = method.getParameters();
+        this.argumentNames = new String[parameters.length];
+        this.inputConstructors = new Constructor<?>[parameters.length];
+        this.pageRequests = new boolean[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter p = parameters[i];
+            Class<?> paramType = p.getType();
+            if (DataFetchingEnvironment.class.isAssignableFrom(paramType)) {
+                continue;
+            }
+            if (paramType == PageRequest.class) {
+                pageRequests[i] = true;
+                continue;
+            }
+            GraphQLName name = p.getAnnotation(GraphQLName.class);
+            argumentNames[i] = name == null ? p.getName() : name.value();
+            graphql.schema.GraphQLType graphQLType = typeFunction.apply(paramType, p.getAnnotatedType());
+            if (graphQLType instanceof GraphQLObjectType) {
+                inputConstructors[i] = constructor(paramType, HashMap.class);
+            }
+        }
     }
 
     @Override
     public Object get(DataFetchingEnvironment environment) {
-        try {
-            Object obj;
+        Object obj;
 
-            if (Modifier.isStatic(method.getModifiers())) {
-                obj = null;
-            } else if (method.getAnnotation(GraphQLInvokeDetached.class) == null) {
-                obj = environment.getSource();
-                if (obj == null) {
-                    return null;
-                }
-            } else {
-                obj = newInstance(method.getDeclaringClass());
+        if (isStatic) {
+            obj = null;
+        } else if (!invokeDetached) {
+            obj = environment.getSource();
+            if (obj == null) {
+                return null;
             }
-            return method.invoke(obj, invocationArgs(environment));
-        } catch (IllegalAccessException | InvocationTargetException e) {
+        } else {
+            obj = newInstance(method.getDeclaringClass());
+        }
+        Object[] args = invocationArgs(environment);
+        try {
+            return invoker.invoke(obj, args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
     }
 
-    private Object[] invocationArgs(DataFetchingEnvironment environment) {
-        List<Object> result = new ArrayList<>();
-        Iterator envArgs = environment.getArguments().values().iterator();
-        for (Parameter p : method.getParameters()) {
-            Class<?> paramType = p.getType();
-            if (DataFetchingEnvironment.class.isAssignableFrom(paramType)) {
-                result.add(environment);
+    Object[] invocationArgs(DataFetchingEnvironment environment) {
+        Object[] result = new Object[argumentNames.length];
+        Map<String, Object> arguments = environment.getArguments();
+        for (int i = 0; i < result.length; i++) {
+            String name = argumentNames[i];
+            if (pageRequests[i]) {
+                result[i] = environment instanceof PageRequestEnvironment ? ((PageRequestEnvironment) environment).getPageRequest() : null;
                 continue;
             }
-            graphql.schema.GraphQLType graphQLType = typeFunction.apply(paramType, p.getAnnotatedType());
-            if (graphQLType instanceof GraphQLObjectType) {
-                Constructor<?> constructor = constructor(paramType, HashMap.class);
-                result.add(constructNewInstance(constructor, envArgs.next()));
-
-            } else {
-                result.add(envArgs.next());
+            if (name == null) {
+                result[i] = environment;
+                continue;
             }
+            Object value = arguments.get(name);
+            Constructor<?> constructor = inputConstructors[i];
+            result[i] = constructor == null || value == null ? value : constructNewInstance(constructor, value);
         }
-        return result.toArray();
+        return result;
     }
 }
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * A package level helper that turns a reflective {@link Method} into a {@link MethodHandle}
+ * once (at schema building time), so that data fetchers don't go through {@link Method#invoke}
+ * on every field resolution.
+ *
+ * Static and instance methods share the same <code>(Object, Object[])Object</code> shape,
+ * the target is simply ignored for static methods.
+ */
+class MethodInvoker {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final MethodHandle handle;
+
+    private MethodInvoker(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    static MethodInvoker of(Method method) throws GraphQLAnnotationsException {
+        try {
+            method.setAccessible(true);
+        } catch (RuntimeException e) {
+            // SecurityException, or InaccessibleObjectException on Java 9+:
+            // fall through, unreflect will report if the method is not accessible
+        }
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException e) {
+            throw new GraphQLAnnotationsException("Unable to access method : " + method, e);
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        handle = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+        return new MethodInvoker(handle);
+    }
+
+    Object invoke(Object target, Object[] args) throws Throwable {
+        return (Object) handle.invokeExact(target, args);
+    }
+}
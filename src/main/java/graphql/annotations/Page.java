@@ -0,0 +1,78 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page of nodes returned by a keyset paginated {@link GraphQLConnection} method, see {@link PageRequest}.
+ *
+ * Nodes are in the connection's order whatever the direction of the request, and each has a key, from which
+ * its cursor is encoded.
+ *
+ * @param <T> node type
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final Function<? super T, ?> key;
+    private final boolean hasPreviousPage;
+    private final boolean hasNextPage;
+
+    public Page(List<T> items, Function<? super T, ?> key, boolean hasPreviousPage, boolean hasNextPage) {
+        this.items = items;
+        this.key = key;
+        this.hasPreviousPage = hasPreviousPage;
+        this.hasNextPage = hasNextPage;
+    }
+
+    /**
+     * Builds the page of a request from nodes fetched with one more than the request's limit: the extra node, if
+     * any, is dropped and tells there are more nodes in the direction of the request. In the other direction,
+     * there are assumed to be more nodes if the request started from a key.
+     *
+     * @param request page request
+     * @param items   up to limit + 1 nodes, in the connection's order
+     * @param key     node key
+     * @param <T>     node type
+     *
+     * @return the page
+     */
+    public static <T> Page<T> of(PageRequest request, List<T> items, Function<? super T, ?> key) {
+        Integer limit = request.getLimit();
+        boolean more = limit != null && items.size() > limit;
+        if (request.isForward()) {
+            return new Page<>(more ? items.subList(0, limit) : items, key, request.getAfter() != null, more);
+        }
+        return new Page<>(more ? items.subList(items.size() - limit, items.size()) : items, key, more, request.getBefore() != null);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Object getKey(T item) {
+        return key.apply(item);
+    }
+
+    public boolean hasPreviousPage() {
+        return hasPreviousPage;
+    }
+
+    public boolean hasNextPage() {
+        return hasNextPage;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.relay.ConnectionCursor;
+import graphql.relay.Edge;
+import graphql.relay.PageInfo;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection of a {@link Page} fetched by keyset pagination: the data source already applied the
+ * {@code first}/{@code after}/{@code last}/{@code before} arguments, so edges and page info are built
+ * from the page as is. Cursors encode the keys of the nodes.
+ */
+public class PageConnection implements DataFetcher, Connection {
+
+    private final Page<Object> page;
+    private final CursorCodec cursorCodec;
+
+    public PageConnection(Page<?> page) {
+        this(page, DefaultCursorCodec.INSTANCE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public PageConnection(Page<?> page, CursorCodec cursorCodec) {
+        this.page = (Page<Object>) page;
+        this.cursorCodec = cursorCodec;
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) {
+        List<Object> items = page.getItems();
+        boolean hasPreviousPage = page.hasPreviousPage();
+
+        // a forward request with both first and last: the page holds the first nodes
+        Integer first = environment.<Integer>getArgument("first");
+        Integer last = environment.<Integer>getArgument("last");
+        if (first != null && last != null && last < items.size()) {
+            items = items.subList(items.size() - Math.max(last, 0), items.size());
+            hasPreviousPage = true;
+        }
+
+        graphql.relay.Connection connection = new graphql.relay.Connection();
+        PageInfo pageInfo = new PageInfo();
+        connection.setPageInfo(pageInfo);
+        if (items.isEmpty()) {
+            return connection;
+        }
+
+        List<Edge> edges = new ArrayList<>(items.size());
+        for (Object item : items) {
+            edges.add(new Edge(item, new ConnectionCursor(cursorCodec.encodeKey(page.getKey(item)))));
+        }
+        pageInfo.setStartCursor(edges.get(0).getCursor());
+        pageInfo.setEndCursor(edges.get(edges.size() - 1).getCursor());
+        pageInfo.setHasPreviousPage(hasPreviousPage);
+        pageInfo.setHasNextPage(page.hasNextPage());
+        connection.setEdges(edges);
+
+        return connection;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.util.Map;
+
+/**
+ * Page of a keyset paginated connection, as requested by the {@code first}/{@code after} or
+ * {@code last}/{@code before} arguments: the keys are decoded from the cursors.
+ *
+ * A {@link GraphQLConnection} method returning a {@link Page} can take a PageRequest parameter, so it can
+ * seek to the requested keys and only load the requested number of nodes.
+ */
+public final class PageRequest {
+
+    public enum Direction {
+        /**
+         * Nodes following the {@code after} key, up to the {@code before} key
+         */
+        FORWARD,
+        /**
+         * Nodes preceding the {@code before} key, down to the {@code after} key
+         */
+        BACKWARD
+    }
+
+    private final Integer limit;
+    private final Object after;
+    private final Object before;
+    private final Direction direction;
+
+    public PageRequest(Integer limit, Object after, Object before, Direction direction) {
+        if (limit != null && limit < 0) {
+            throw new IllegalArgumentException("Page request limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        this.after = after;
+        this.before = before;
+        this.direction = direction;
+    }
+
+    static PageRequest of(Map<String, Object> arguments, CursorCodec cursorCodec) {
+        Integer first = (Integer) arguments.get("first");
+        Integer last = (Integer) arguments.get("last");
+        String after = (String) arguments.get("after");
+        String before = (String) arguments.get("before");
+        if (first != null && first < 0) {
+            throw new IllegalArgumentException("first must not be negative: " + first);
+        }
+        if (last != null && last < 0) {
+            throw new IllegalArgumentException("last must not be negative: " + last);
+        }
+        // first wins when both are given, last then slices the page
+        boolean backward = first == null && last != null;
+        return new PageRequest(backward ? last : first,
+                after == null ? null : cursorCodec.decodeKey(after),
+                before == null ? null : cursorCodec.decodeKey(before),
+                backward ? Direction.BACKWARD : Direction.FORWARD);
+    }
+
+    /**
+     * @return the maximum number of nodes (zero or more), or null if unbounded
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the key the nodes should follow, or null
+     */
+    public Object getAfter() {
+        return after;
+    }
+
+    /**
+     * @return the key the nodes should precede, or null
+     */
+    public Object getBefore() {
+        return before;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isForward() {
+        return direction == Direction.FORWARD;
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{limit=" + limit + ", after=" + after + ", before=" + before + ", direction=" + direction + "}";
+    }
+}
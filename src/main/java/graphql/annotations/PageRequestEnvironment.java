@@ -0,0 +1,42 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.language.Field;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data fetching environment of a keyset paginated connection method, carrying the requested page
+ */
+class PageRequestEnvironment extends DataFetchingEnvironment {
+    private final PageRequest pageRequest;
+
+    PageRequestEnvironment(Object source, Map<String, Object> arguments, Object context, List<Field> fields,
+                           GraphQLOutputType fieldType, GraphQLType parentType, GraphQLSchema graphQLSchema,
+                           PageRequest pageRequest) {
+        super(source, arguments, context, fields, fieldType, parentType, graphQLSchema);
+        this.pageRequest = pageRequest;
+    }
+
+    PageRequest getPageRequest() {
+        return pageRequest;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLException;
+import graphql.execution.ExecutionContext;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * {@link EnhancedExecutionStrategy} that resolves sibling fields concurrently on an {@link Executor}
+ * (the common fork-join pool by default).
+ *
+ * The calling thread resolves the first field itself, the fields that are not {@link #isOffloaded(GraphQLFieldDefinition) offloaded},
+ * and any field the executor hasn't started by the time its result is needed, so nested selections can't starve a bounded executor.
+ * Futures ({@link CompletionStage}) returned by data fetchers are only waited for once all sibling fields
+ * have been fetched, so that they overlap without tying up a thread each. Mutations are resolved serially.
+ */
+public class ParallelEnhancedExecutionStrategy extends EnhancedExecutionStrategy {
+
+    private final Executor executor;
+
+    public ParallelEnhancedExecutionStrategy() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelEnhancedExecutionStrategy(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public ExecutionResult execute(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, Map<String, List<Field>> fields) {
+        if (fields.size() < 2 ||
+                executionContext.getOperationDefinition().getOperation() == OperationDefinition.Operation.MUTATION) {
+            return super.execute(executionContext, parentType, source, fields);
+        }
+
+        Thread caller = Thread.currentThread();
+        Long deadline = RequestDeadline.current();
+        Map<String, FutureTask<Supplier<ExecutionResult>>> tasks = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Field>> entry : fields.entrySet()) {
+            if (tasks.isEmpty() || !isOffloaded(getFieldDef(executionContext.getGraphQLSchema(), parentType, entry.getValue().get(0)))) {
+                tasks.put(entry.getKey(), new FutureTask<>(() -> fetchField(executionContext, parentType, source, entry.getValue())));
+                continue;
+            }
+            long submitted = System.nanoTime();
+            FutureTask<Supplier<ExecutionResult>> task = new FutureTask<>(() -> {
+                if (Thread.currentThread() == caller) {
+                    return fetchField(executionContext, parentType, source, entry.getValue());
+                }
+                offloaded(System.nanoTime() - submitted);
+                return RequestDeadline.at(deadline, () -> fetchField(executionContext, parentType, source, entry.getValue()));
+            });
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // resolved on this thread below
+            }
+            tasks.put(entry.getKey(), task);
+        }
+
+        // fetch all the fields the executor hasn't started yet (a no-op for the others), before waiting for any of them
+        tasks.values().forEach(FutureTask::run);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Map.Entry<String, FutureTask<Supplier<ExecutionResult>>> entry : tasks.entrySet()) {
+            ExecutionResult result = await(entry.getValue()).get();
+            results.put(entry.getKey(), result != null ? result.getData() : null);
+        }
+        return new ExecutionResultImpl(results, errors(executionContext));
+    }
+
+    @Override
+    protected ExecutionResult resolveField(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, List<Field> fields) {
+        return fetchField(executionContext, parentType, source, fields).get();
+    }
+
+    /**
+     * Fetches the value of a field. Values are completed right away, except for futures returned by data fetchers:
+     * those are completed (and waited for) by the thread that collects the result, once all sibling fields have
+     * been fetched.
+     */
+    private Supplier<ExecutionResult> fetchField(ExecutionContext executionContext, GraphQLObjectType parentType,
+                                                 Object source, List<Field> fields) {
+        ResolvedField resolvedField = resolveFieldDef(executionContext.getGraphQLSchema(), parentType, fields.get(0));
+        if (resolvedField == null || resolvedField.clientMutationId) {
+            ExecutionResult result = super.resolveField(executionContext, parentType, source, fields);
+            return () -> result;
+        }
+        GraphQLFieldDefinition fieldDef = resolvedField.fieldDef;
+
+        Map<String, Object> argumentValues = valuesResolver.getArgumentValues(fieldDef.getArguments(), fields.get(0).getArguments(),
+                executionContext.getVariables());
+        DataFetchingEnvironment environment = new DataFetchingEnvironment(source, argumentValues, executionContext.getRoot(),
+                fields, fieldDef.getType(), parentType, executionContext.getGraphQLSchema());
+
+        Object resolvedValue = null;
+        try {
+            resolvedValue = fetch(fieldDef, environment);
+        } catch (Exception e) {
+            handleDataFetchingException(executionContext, e);
+        }
+        if (resolvedValue instanceof CompletionStage) {
+            Object future = resolvedValue;
+            return () -> completeValue(executionContext, fieldDef.getType(), fields, future);
+        }
+        ExecutionResult result = completeValue(executionContext, fieldDef.getType(), fields, resolvedValue);
+        return () -> result;
+    }
+
+    /**
+     * Tells whether a field should be resolved on the executor, or inline by the calling thread.
+     * All fields are offloaded by default.
+     *
+     * @param fieldDef field definition, or null for an unknown field
+     *
+     * @return true to resolve the field on the executor
+     */
+    protected boolean isOffloaded(GraphQLFieldDefinition fieldDef) {
+        return fieldDef != null;
+    }
+
+    /**
+     * Called when the executor starts resolving a field
+     *
+     * @param delayNanos time the field waited for the executor, in nanoseconds
+     */
+    protected void offloaded(long delayNanos) {
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GraphQLException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new GraphQLException(e.getCause());
+        }
+    }
+}
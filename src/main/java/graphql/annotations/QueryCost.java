@@ -0,0 +1,56 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+/**
+ * Worst-case cost of a query, as estimated by {@link QueryCostAnalyzer}
+ */
+public class QueryCost {
+    private final long cost;
+    private final int depth;
+    private final int breadth;
+
+    public QueryCost(long cost, int depth, int breadth) {
+        this.cost = cost;
+        this.depth = depth;
+        this.breadth = breadth;
+    }
+
+    /**
+     * @return the number of fields fetched (weighted by their {@link GraphQLCost}), if all lists are full
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * @return the deepest nesting of fields, top-level fields being at depth 1
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the largest number of fields selected on a single object (including the fields of fragments)
+     */
+    public int getBreadth() {
+        return breadth;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCost{cost=" + cost + ", depth=" + depth + ", breadth=" + breadth + "}";
+    }
+}
@@ -0,0 +1,385 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.ErrorType;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.execution.ValuesResolver;
+import graphql.language.Argument;
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.SourceLocation;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLModifiedType;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the worst-case cost of a query against a schema, without executing it, and rejects queries that are
+ * too expensive, too deep or too broad.
+ *
+ * The cost of a field is its {@link GraphQLCost} (1 by default), plus the cost of its subfields multiplied
+ * by the number of items for list and connection fields: the <code>first</code> or <code>last</code> argument
+ * of a connection, or the field's {@link GraphQLCost#multiplier()}, or the analyzer's default list size.
+ * Variables are resolved as by the execution (with their default values, and coerced to their type);
+ * a limit given by an invalid variable is considered unbounded.
+ * <pre>
+ * QueryCostAnalyzer analyzer = new QueryCostAnalyzer(10000, 10, 100);
+ * ExecutionResult result = analyzer.execute(graphQL, schema, query, context, variables);
+ * </pre>
+ */
+public class QueryCostAnalyzer {
+
+    public static final int DEFAULT_LIST_SIZE = 10;
+
+    private final long maxCost;
+    private final int maxDepth;
+    private final int maxBreadth;
+    private final int defaultListSize;
+
+    public QueryCostAnalyzer(long maxCost, int maxDepth, int maxBreadth) {
+        this(maxCost, maxDepth, maxBreadth, DEFAULT_LIST_SIZE);
+    }
+
+    /**
+     * @param maxCost         maximum cost of a query
+     * @param maxDepth        maximum depth of a query
+     * @param maxBreadth      maximum number of fields selected on a single object
+     * @param defaultListSize number of items assumed for list and connection fields without a multiplier or limit
+     */
+    public QueryCostAnalyzer(long maxCost, int maxDepth, int maxBreadth, int defaultListSize) {
+        this.maxCost = maxCost;
+        this.maxDepth = maxDepth;
+        this.maxBreadth = maxBreadth;
+        this.defaultListSize = defaultListSize;
+    }
+
+    /**
+     * @param schema        schema
+     * @param document      parsed query
+     * @param operationName name of the operation to analyze, or null for the first one
+     * @param variables     query variables
+     *
+     * @return the cost of the operation
+     */
+    public QueryCost analyze(GraphQLSchema schema, Document document, String operationName, Map<String, Object> variables) {
+        OperationDefinition operation = null;
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        for (Definition definition : document.getDefinitions()) {
+            if (definition instanceof FragmentDefinition) {
+                fragments.put(((FragmentDefinition) definition).getName(), (FragmentDefinition) definition);
+            } else if (definition instanceof OperationDefinition && (operation == null ||
+                    (operationName != null && operationName.equals(((OperationDefinition) definition).getName())))) {
+                operation = (OperationDefinition) definition;
+            }
+        }
+        if (operation == null) {
+            return new QueryCost(0, 0, 0);
+        }
+        GraphQLType rootType = operation.getOperation() == OperationDefinition.Operation.MUTATION ?
+                schema.getMutationType() : schema.getQueryType();
+        Map<String, Object> variableValues;
+        try {
+            // as coerced by the execution, with the operation's default values
+            variableValues = new ValuesResolver().getVariableValues(schema, operation.getVariableDefinitions(),
+                    variables == null ? Collections.emptyMap() : variables);
+        } catch (RuntimeException e) {
+            // rejected by the execution too, limits given by variables are then considered unbounded
+            variableValues = null;
+        }
+        Analysis analysis = new Analysis(schema, fragments, variableValues);
+        Result result = analysis.selectionSet(operation.getSelectionSet(), rootType, null);
+        return new QueryCost(result.cost, result.depth, result.breadth);
+    }
+
+    public QueryCost analyze(GraphQLSchema schema, String query, Map<String, Object> variables) {
+        return analyze(schema, new Parser().parseDocument(query), null, variables);
+    }
+
+    /**
+     * @param cost cost of a query
+     *
+     * @return the reason why the query is rejected, or null if it is accepted
+     */
+    public String check(QueryCost cost) {
+        if (cost.getCost() > maxCost) {
+            return "Query cost " + cost.getCost() + " exceeds the maximum of " + maxCost;
+        }
+        if (cost.getDepth() > maxDepth) {
+            return "Query depth " + cost.getDepth() + " exceeds the maximum of " + maxDepth;
+        }
+        if (cost.getBreadth() > maxBreadth) {
+            return "Query breadth " + cost.getBreadth() + " exceeds the maximum of " + maxBreadth;
+        }
+        return null;
+    }
+
+    /**
+     * Executes a query, unless it is rejected, in which case no data fetcher is called and the result only has
+     * a validation error
+     */
+    public ExecutionResult execute(GraphQL graphQL, GraphQLSchema schema, String query, String operationName,
+                                   Object context, Map<String, Object> variables) {
+        if (variables == null) {
+            variables = Collections.emptyMap();
+        }
+        Document document;
+        try {
+            document = new Parser().parseDocument(query);
+        } catch (RuntimeException e) {
+            // reported by graphql-java
+            return graphQL.execute(query, operationName, context, variables);
+        }
+        String rejection = check(analyze(schema, document, operationName, variables));
+        if (rejection != null) {
+            return new ExecutionResultImpl(null, Collections.<GraphQLError>singletonList(new QueryCostError(rejection)));
+        }
+        return graphQL.execute(query, operationName, context, variables);
+    }
+
+    public ExecutionResult execute(GraphQL graphQL, GraphQLSchema schema, String query, Object context, Map<String, Object> variables) {
+        return execute(graphQL, schema, query, null, context, variables);
+    }
+
+    private static class Result {
+        private static final Result EMPTY = new Result();
+
+        private long cost;
+        private int depth;
+        // fields selected directly (or through fragments) on the enclosing object
+        private int width;
+        private int breadth;
+    }
+
+    private class Analysis {
+        private final GraphQLSchema schema;
+        private final Map<String, FragmentDefinition> fragments;
+        // coerced variables, or null if they are invalid
+        private final Map<String, Object> variables;
+        // fragments are analyzed once (per number of connection items), however many times they are spread
+        private final Map<String, Result> fragmentResults = new HashMap<>();
+        private final Set<String> fragmentsInProgress = new HashSet<>();
+
+        private Analysis(GraphQLSchema schema, Map<String, FragmentDefinition> fragments, Map<String, Object> variables) {
+            this.schema = schema;
+            this.fragments = fragments;
+            this.variables = variables;
+        }
+
+        /**
+         * @param connectionItems number of items, if the selection set is a connection's
+         */
+        private Result selectionSet(SelectionSet selectionSet, GraphQLType parentType, Long connectionItems) {
+            Result result = new Result();
+            for (Selection selection : selectionSet.getSelections()) {
+                if (selection instanceof Field) {
+                    result.width++;
+                    Result field = field((Field) selection, parentType, connectionItems);
+                    result.cost = add(result.cost, field.cost);
+                    result.depth = Math.max(result.depth, field.depth);
+                    result.breadth = Math.max(result.breadth, field.breadth);
+                } else {
+                    merge(result, fragment(selection, parentType, connectionItems));
+                }
+            }
+            result.breadth = Math.max(result.breadth, result.width);
+            return result;
+        }
+
+        private Result fragment(Selection selection, GraphQLType parentType, Long connectionItems) {
+            if (selection instanceof InlineFragment) {
+                InlineFragment fragment = (InlineFragment) selection;
+                GraphQLType type = fragment.getTypeCondition() == null ? parentType : schema.getType(fragment.getTypeCondition().getName());
+                return selectionSet(fragment.getSelectionSet(), type, connectionItems);
+            }
+            String name = ((FragmentSpread) selection).getName();
+            FragmentDefinition fragment = fragments.get(name);
+            if (fragment == null || fragmentsInProgress.contains(name)) {
+                return Result.EMPTY;
+            }
+            String key = connectionItems == null ? name : name + "@" + connectionItems;
+            Result result = fragmentResults.get(key);
+            if (result == null) {
+                fragmentsInProgress.add(name);
+                result = selectionSet(fragment.getSelectionSet(), schema.getType(fragment.getTypeCondition().getName()), connectionItems);
+                fragmentsInProgress.remove(name);
+                fragmentResults.put(key, result);
+            }
+            return result;
+        }
+
+        private void merge(Result result, Result fragment) {
+            result.cost = add(result.cost, fragment.cost);
+            result.depth = Math.max(result.depth, fragment.depth);
+            result.width += fragment.width;
+            result.breadth = Math.max(result.breadth, fragment.breadth);
+        }
+
+        private Result field(Field field, GraphQLType parentType, Long connectionItems) {
+            Result result = new Result();
+            result.depth = 1;
+            GraphQLFieldDefinition fieldDef = parentType instanceof GraphQLFieldsContainer ?
+                    ((GraphQLFieldsContainer) parentType).getFieldDefinition(field.getName()) : null;
+            if (fieldDef == null) {
+                // introspection and unknown fields
+                return result;
+            }
+
+            result.cost = fieldDef instanceof GraphQLAnnotations.GraphQLFieldDefinitionWrapper ?
+                    ((GraphQLAnnotations.GraphQLFieldDefinitionWrapper) fieldDef).getCost() : 1;
+            if (field.getSelectionSet() == null) {
+                return result;
+            }
+
+            GraphQLType type = unwrapNonNull(fieldDef.getType());
+            GraphQLType itemType = unwrap(type);
+            long items = 1;
+            Long subConnectionItems = null;
+            if (isConnection(fieldDef, itemType)) {
+                // the items are the connection's edges
+                subConnectionItems = items(field, fieldDef);
+            } else if (connectionItems != null && field.getName().equals("edges")) {
+                items = connectionItems;
+            } else if (type instanceof GraphQLList) {
+                items = items(field, fieldDef);
+            }
+
+            Result selection = selectionSet(field.getSelectionSet(), itemType, subConnectionItems);
+            result.cost = add(result.cost, multiply(items, selection.cost));
+            result.depth += selection.depth;
+            result.breadth = selection.breadth;
+            return result;
+        }
+
+        private boolean isConnection(GraphQLFieldDefinition fieldDef, GraphQLType type) {
+            return (fieldDef.getArgument("first") != null || fieldDef.getArgument("last") != null) &&
+                    type instanceof GraphQLFieldsContainer && ((GraphQLFieldsContainer) type).getFieldDefinition("edges") != null;
+        }
+
+        private long items(Field field, GraphQLFieldDefinition fieldDef) {
+            Long items = null;
+            for (Argument argument : field.getArguments()) {
+                if (argument.getName().equals("first") || argument.getName().equals("last")) {
+                    Long limit = intValue(argument.getValue());
+                    if (limit != null && (items == null || limit < items)) {
+                        items = Math.max(limit, 0);
+                    }
+                }
+            }
+            if (items != null) {
+                return items;
+            }
+            if (fieldDef instanceof GraphQLAnnotations.GraphQLFieldDefinitionWrapper &&
+                    ((GraphQLAnnotations.GraphQLFieldDefinitionWrapper) fieldDef).getMultiplier() > 0) {
+                return ((GraphQLAnnotations.GraphQLFieldDefinitionWrapper) fieldDef).getMultiplier();
+            }
+            return defaultListSize;
+        }
+
+        private Long intValue(Value value) {
+            if (value instanceof IntValue) {
+                return ((IntValue) value).getValue().longValue();
+            }
+            if (value instanceof VariableReference) {
+                if (variables == null) {
+                    return Long.MAX_VALUE;
+                }
+                Object variable = variables.get(((VariableReference) value).getName());
+                if (variable instanceof Number) {
+                    return ((Number) variable).longValue();
+                }
+                // no limit given
+                return variable == null ? null : Long.MAX_VALUE;
+            }
+            return null;
+        }
+    }
+
+    private static GraphQLType unwrapNonNull(GraphQLType type) {
+        return type instanceof GraphQLNonNull ? ((GraphQLNonNull) type).getWrappedType() : type;
+    }
+
+    private static GraphQLType unwrap(GraphQLType type) {
+        while (type instanceof GraphQLModifiedType) {
+            type = ((GraphQLModifiedType) type).getWrappedType();
+        }
+        return type;
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static class QueryCostError implements GraphQLError {
+        private final String message;
+
+        private QueryCostError(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public List<SourceLocation> getLocations() {
+            return null;
+        }
+
+        @Override
+        public ErrorType getErrorType() {
+            return ErrorType.ValidationError;
+        }
+
+        @Override
+        public String toString() {
+            return "QueryCostError{message='" + message + "'}";
+        }
+    }
+}
@@ -16,7 +16,6 @@ package graphql.annotations;
 
 import graphql.schema.*;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.Arrays;
@@ -26,6 +25,7 @@ import java.util.stream.Collectors;
 
 public class RelayMutationMethodDataFetcher implements DataFetcher {
     private final Method method;
+    private final MethodInvoker invoker;
     private final List<GraphQLArgument> args;
     private final GraphQLInputType input;
     private final GraphQLOutputType type;
@@ -33,6 +33,7 @@ public class RelayMutationMethodDataFetcher implements DataFetcher {
 
     public RelayMutationMethodDataFetcher(Method method, List<GraphQLArgument> args, GraphQLInputType input, GraphQLOutputType type) {
         this.method = method;
+        this.invoker = MethodInvoker.of(method);
         this.args = args;
         this.input = input;
         this.type = type;
@@ -52,8 +53,10 @@ public class RelayMutationMethodDataFetcher implements DataFetcher {
             if (envIndex >= 0) {
                 args.add(envIndex, environment);
             }
-            return method.invoke(environment.getSource(), args.toArray());
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return invoker.invoke(environment.getSource(), args.toArray());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
     }
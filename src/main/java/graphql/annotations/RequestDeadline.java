@@ -0,0 +1,82 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of a request: fields still being fetched when it expires are cancelled, and fields fetched after it
+ * resolve to null right away, each with a {@link FieldTimeoutException} error.
+ * <pre>
+ * ExecutionResult result = RequestDeadline.within(500, TimeUnit.MILLISECONDS, () -&gt; graphQL.execute(query));
+ * </pre>
+ *
+ * The deadline applies to the thread executing the request, and is propagated to the threads resolving its fields
+ * by {@link ParallelEnhancedExecutionStrategy}.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Runs an execution with a deadline. A deadline can't be extended: within an outer deadline, the earlier one applies.
+     *
+     * @param timeout   time budget of the execution
+     * @param unit      unit of the timeout
+     * @param execution the execution
+     * @param <T>       type of the execution result
+     *
+     * @return the execution result
+     */
+    public static <T> T within(long timeout, TimeUnit unit, Supplier<T> execution) {
+        return at(System.nanoTime() + unit.toNanos(timeout), execution);
+    }
+
+    /**
+     * @return the time left before the deadline of the current request, in nanoseconds, or Long.MAX_VALUE if there is none
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    /**
+     * @return the deadline of the current request, as a {@link System#nanoTime()} value, or null
+     */
+    static Long current() {
+        return DEADLINE.get();
+    }
+
+    static <T> T at(Long deadline, Supplier<T> execution) {
+        Long previous = DEADLINE.get();
+        if (deadline == null || (previous != null && previous - deadline < 0)) {
+            return execution.get();
+        }
+        DEADLINE.set(deadline);
+        try {
+            return execution.get();
+        } finally {
+            if (previous == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+}
@@ -14,72 +14,86 @@
  */
 package graphql.annotations;
 
-import graphql.relay.Base64;
 import graphql.relay.ConnectionCursor;
 import graphql.relay.Edge;
 import graphql.relay.PageInfo;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class StreamConnection implements DataFetcher, Connection {
 
     private final Stream<?> stream;
-    private static final String DUMMY_CURSOR_PREFIX = "stream-cursor";
-    
+    private final CursorCodec cursorCodec;
+
     public StreamConnection(Stream<?> stream) {
-        this.stream = stream;
+        this(stream, DefaultCursorCodec.INSTANCE);
     }
 
-    private Stream<Edge> buildEdges() {
-        AtomicInteger ix = new AtomicInteger();
-        return stream.map(obj -> new Edge(obj, new ConnectionCursor(createCursor(ix.incrementAndGet()))));
+    public StreamConnection(Stream<?> stream, CursorCodec cursorCodec) {
+        this.stream = stream;
+        this.cursorCodec = cursorCodec;
     }
 
-
+    /**
+     * Pages through the stream lazily: it is skipped to {@code after}, and no more than {@code first + 1} elements
+     * are pulled from it (the extra one only tells whether there is a next page). With {@code last}, only the
+     * last elements seen are kept, in a ring buffer. Cursors are only created for the returned edges.
+     */
     @Override
     public Object get(DataFetchingEnvironment environment) {
 
         int afterOffset = getOffsetFromCursor(environment.<String>getArgument("after"), 0);
         int beforeOffset = getOffsetFromCursor(environment.<String>getArgument("before"), Integer.MAX_VALUE);
 
-        Stream<Edge> edgesStream = buildEdges().skip(afterOffset).limit(beforeOffset - afterOffset);
-
-        List<Edge> edges = edgesStream.collect(Collectors.toList());
-
-        if (edges.size() == 0) {
-            return emptyConnection();
-        }
-
         Integer first = environment.<Integer>getArgument("first");
         Integer last = environment.<Integer>getArgument("last");
 
-        ConnectionCursor firstPresliceCursor = edges.get(0).getCursor();
-        ConnectionCursor lastPresliceCursor = edges.get(edges.size() - 1).getCursor();
-
-        if (first != null) {
-            edges = edges.subList(0, first <= edges.size() ? first : edges.size());
+        if (beforeOffset <= afterOffset || (first != null && first <= 0) || (last != null && last <= 0)) {
+            return emptyConnection();
         }
-        if (last != null) {
-            edges = edges.subList(edges.size() - last, edges.size());
+
+        long limit = first == null ? beforeOffset - afterOffset : Math.min(beforeOffset - afterOffset, first + 1L);
+        Iterator<?> iterator = stream.skip(afterOffset).limit(limit).iterator();
+
+        List<Object> items = new ArrayList<>();
+        int count = 0;
+        boolean hasNextPage = false;
+        while (iterator.hasNext()) {
+            Object obj = iterator.next();
+            if (first != null && count == first) {
+                hasNextPage = true;
+                break;
+            }
+            if (last != null && count >= last) {
+                items.set(count % last, obj);
+            } else {
+                items.add(obj);
+            }
+            count++;
         }
 
-        if (edges.size() == 0) {
+        if (count == 0) {
             return emptyConnection();
         }
 
-        Edge firstEdge = edges.get(0);
-        Edge lastEdge = edges.get(edges.size() - 1);
+        // the oldest element of a full ring buffer is the one that would have been overwritten next
+        int start = last != null && count > last ? count % last : 0;
+        int offset = afterOffset + count - items.size();
+        List<Edge> edges = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            edges.add(new Edge(items.get((start + i) % items.size()), new ConnectionCursor(createCursor(offset + i + 1))));
+        }
 
         PageInfo pageInfo = new PageInfo();
-        pageInfo.setStartCursor(firstEdge.getCursor());
-        pageInfo.setEndCursor(lastEdge.getCursor());
-        pageInfo.setHasPreviousPage(!firstEdge.getCursor().equals(firstPresliceCursor));
-        pageInfo.setHasNextPage(!lastEdge.getCursor().equals(lastPresliceCursor));
+        pageInfo.setStartCursor(edges.get(0).getCursor());
+        pageInfo.setEndCursor(edges.get(edges.size() - 1).getCursor());
+        pageInfo.setHasPreviousPage(count > items.size());
+        pageInfo.setHasNextPage(hasNextPage);
 
         graphql.relay.Connection connection = new graphql.relay.Connection();
         connection.setEdges(edges);
@@ -104,12 +118,10 @@ public class StreamConnection implements DataFetcher, Connection {
 
     private int getOffsetFromCursor(String cursor, int defaultValue) {
         if (cursor == null) return defaultValue;
-        String string = Base64.fromBase64(cursor);
-        return Integer.parseInt(string.substring(DUMMY_CURSOR_PREFIX.length()));
+        return cursorCodec.decodeOffset(cursor);
     }
 
     private String createCursor(int offset) {
-        String string = Base64.toBase64(DUMMY_CURSOR_PREFIX + Integer.toString(offset));
-        return string;
+        return cursorCodec.encodeOffset(offset);
     }
 }
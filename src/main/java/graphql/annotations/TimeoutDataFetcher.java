@@ -0,0 +1,46 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data fetcher running another one with a {@link GraphQLTimeout}
+ */
+class TimeoutDataFetcher implements DataFetcher {
+    private final long timeoutNanos;
+    private final DataFetcher dataFetcher;
+
+    TimeoutDataFetcher(long timeoutMillis, DataFetcher dataFetcher) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.dataFetcher = dataFetcher;
+    }
+
+    long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    DataFetcher getDataFetcher() {
+        return dataFetcher;
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) {
+        return FieldTimeouts.fetch(dataFetcher, environment, Math.min(timeoutNanos, RequestDeadline.remainingNanos()));
+    }
+}
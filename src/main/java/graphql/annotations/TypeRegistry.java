@@ -0,0 +1,222 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeReference;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Registry of GraphQL types built from Java classes, safe for concurrent schema building.
+ *
+ * Every class is built once: the first caller builds it, while concurrent callers wait for the in-flight build
+ * to complete, so that nobody ever observes a partially built type. A type that refers to itself, directly or not,
+ * does so through a {@link GraphQLTypeReference} to the type being built further up the stack, just like a recursive
+ * sequential build would do. Types are told apart by class: different classes with the same GraphQL name are built
+ * separately, and never refer to each other.
+ *
+ * Such a reference can only be resolved in a schema where the referred type is reachable, so the registry keeps track
+ * of the references each type holds to types outside of it. A type is only handed out where those types are being
+ * built further up the stack; elsewhere it is built again. In particular, the types returned to callers that aren't
+ * building a type themselves never hold such references: every type they refer to is reachable from them.
+ * When waiting for another thread would close a cycle, the type is built again rather than waited for.
+ */
+class TypeRegistry {
+    private final Map<Class<?>, CompletableFuture<Built>> types = new ConcurrentHashMap<>();
+    private final Map<String, GraphQLType> typesByName = new ConcurrentHashMap<>();
+
+    // wait-for graph of in-flight builds, guarded by this
+    private final Map<Class<?>, Thread> builders = new HashMap<>();
+    private final Map<Thread, Class<?>> waiting = new HashMap<>();
+
+    // types being built by the current thread, innermost first
+    private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Returns the type for the class, building it with <code>builder</code> if it hasn't been built yet
+     *
+     * @param aClass   the class to look up
+     * @param typeName GraphQL name of the type, used for type references
+     * @param builder  builds the type
+     *
+     * @return the type, or a {@link GraphQLTypeReference} if the type is being built further up the stack
+     */
+    GraphQLType getOrBuild(Class<?> aClass, String typeName, Function<Class<?>, ? extends GraphQLType> builder) {
+        Deque<Frame> stack = frames.get();
+        for (Frame frame : stack) {
+            if (frame.type == aClass) {
+                stack.peek().references.add(aClass);
+                return new GraphQLTypeReference(typeName);
+            }
+        }
+
+        Thread current = Thread.currentThread();
+        while (true) {
+            CompletableFuture<Built> future = types.get(aClass);
+            if (future != null && future.isDone() && usable(join(future), stack)) {
+                return use(join(future), stack);
+            }
+
+            CompletableFuture<Built> owned = null;
+            boolean copy = false;
+            synchronized (this) {
+                future = types.get(aClass);
+                if (future == null || (future.isDone() && !usable(join(future), stack) && stack.isEmpty())) {
+                    owned = new CompletableFuture<>();
+                    types.put(aClass, owned);
+                    builders.put(aClass, current);
+                } else if (future.isDone()) {
+                    copy = !usable(join(future), stack);
+                } else if (closesCycle(aClass, current)) {
+                    copy = true;
+                } else {
+                    waiting.put(current, aClass);
+                }
+            }
+
+            if (owned != null) {
+                return use(build(aClass, typeName, builder, owned), stack);
+            }
+            if (copy) {
+                return use(copy(aClass, builder), stack);
+            }
+            Built built;
+            try {
+                built = join(future);
+            } finally {
+                synchronized (this) {
+                    waiting.remove(current);
+                }
+            }
+            if (usable(built, stack)) {
+                return use(built, stack);
+            }
+        }
+    }
+
+    /**
+     * @return types built so far, by GraphQL name (a read-only view)
+     */
+    Map<String, GraphQLType> getTypesByName() {
+        return Collections.unmodifiableMap(typesByName);
+    }
+
+    private Built build(Class<?> aClass, String typeName, Function<Class<?>, ? extends GraphQLType> builder,
+                        CompletableFuture<Built> future) {
+        try {
+            Built built = copy(aClass, builder);
+            typesByName.put(typeName, built.type);
+            future.complete(built);
+            return built;
+        } catch (RuntimeException | Error e) {
+            // let a later call retry the build
+            types.remove(aClass, future);
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                builders.remove(aClass);
+            }
+        }
+    }
+
+    private Built copy(Class<?> aClass, Function<Class<?>, ? extends GraphQLType> builder) {
+        Deque<Frame> stack = frames.get();
+        Frame frame = new Frame(aClass);
+        stack.push(frame);
+        try {
+            GraphQLType type = builder.apply(aClass);
+            frame.references.remove(aClass);
+            return new Built(type, frame.references.isEmpty() ? Collections.emptySet() : frame.references);
+        } finally {
+            stack.pop();
+        }
+    }
+
+    // a type can be used where all the types it refers to outside of itself are being built further up the stack
+    private static boolean usable(Built built, Deque<Frame> stack) {
+        for (Class<?> reference : built.references) {
+            if (stack.stream().noneMatch(frame -> frame.type == reference)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static GraphQLType use(Built built, Deque<Frame> stack) {
+        if (!stack.isEmpty()) {
+            stack.peek().references.addAll(built.references);
+        }
+        return built.type;
+    }
+
+    // follows the chain of builders waiting on each other, starting from the builder of aClass
+    private boolean closesCycle(Class<?> aClass, Thread current) {
+        Thread builder = builders.get(aClass);
+        while (builder != null) {
+            if (builder == current) {
+                return true;
+            }
+            Class<?> awaited = waiting.get(builder);
+            builder = awaited == null ? null : builders.get(awaited);
+        }
+        return false;
+    }
+
+    private static Built join(CompletableFuture<Built> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Built {
+        private final GraphQLType type;
+        // classes of the types referred to from outside of this one
+        private final Set<Class<?>> references;
+
+        private Built(GraphQLType type, Set<Class<?>> references) {
+            this.type = type;
+            this.references = references;
+        }
+    }
+
+    private static class Frame {
+        private final Class<?> type;
+        private final Set<Class<?>> references = new HashSet<>();
+
+        private Frame(Class<?> type) {
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ParallelEnhancedExecutionStrategy} for blocking data fetchers: fields are resolved on virtual threads
+ * when the JVM supports them (Java 21+), so thousands of fetches can block concurrently without sizing a pool.
+ *
+ * On older JVMs, fields are resolved on a bounded pool of platform (daemon) threads instead.
+ */
+public class VirtualThreadExecutionStrategy extends ParallelEnhancedExecutionStrategy {
+
+    private static final int DEFAULT_PLATFORM_THREADS = Runtime.getRuntime().availableProcessors() * 8;
+
+    private static final Executor VIRTUAL_THREADS = virtualThreadPerTaskExecutor();
+
+    private final boolean virtualThreads;
+
+    public VirtualThreadExecutionStrategy() {
+        this(DEFAULT_PLATFORM_THREADS);
+    }
+
+    /**
+     * @param platformThreads size of the platform thread pool used when virtual threads are not available
+     */
+    public VirtualThreadExecutionStrategy(int platformThreads) {
+        super(VIRTUAL_THREADS != null ? VIRTUAL_THREADS : platformThreadPool(platformThreads));
+        this.virtualThreads = VIRTUAL_THREADS != null;
+    }
+
+    /**
+     * @return true if fields are resolved on virtual threads, false if on a platform thread pool
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    private static Executor virtualThreadPerTaskExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static Executor platformThreadPool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "graphql-field-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
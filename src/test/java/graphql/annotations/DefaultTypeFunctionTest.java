@@ -154,6 +154,24 @@ public class DefaultTypeFunctionTest {
         instance.apply(v.getClass(), null);
     }
 
+    @SuppressWarnings("unused")
+    public java.util.concurrent.CompletableFuture<List<@GraphQLNonNull String>> futureMethod() { return null; }
+
+    @SuppressWarnings("unused")
+    public java.util.concurrent.CompletionStage<String> stageMethod() { return null; }
+
+    @Test
+    public void completionStage() throws NoSuchMethodException {
+        DefaultTypeFunction instance = new DefaultTypeFunction();
+        graphql.schema.GraphQLType type = instance.apply(getClass().getMethod("futureMethod").getReturnType(), getClass().getMethod("futureMethod").getAnnotatedReturnType());
+        assertTrue(type instanceof GraphQLList);
+        GraphQLType subtype = ((GraphQLList) type).getWrappedType();
+        assertTrue(subtype instanceof graphql.schema.GraphQLNonNull);
+        assertEquals(((graphql.schema.GraphQLNonNull) subtype).getWrappedType(), GraphQLString);
+
+        assertEquals(instance.apply(getClass().getMethod("stageMethod").getReturnType(), getClass().getMethod("stageMethod").getAnnotatedReturnType()), GraphQLString);
+    }
+
     public static class Class1 {
         @GraphQLField
         public Class2 class2;
@@ -176,4 +194,25 @@ public class DefaultTypeFunctionTest {
         assertTrue(((GraphQLObjectType)class1class2.getType()).getFieldDefinition("class2").getType() instanceof GraphQLTypeReference);
     }
 
-}
\ No newline at end of file
+    private static class UUIDFunction implements TypeFunction {
+        @Override
+        public Collection<Class<?>> getAcceptedTypes() {
+            return Collections.singletonList(UUID.class);
+        }
+
+        @Override
+        public GraphQLType apply(Class<?> aClass, java.lang.reflect.AnnotatedType annotatedType) {
+            return GraphQLString;
+        }
+    }
+
+    @Test
+    public void registerAfterApply() {
+        DefaultTypeFunction instance = new DefaultTypeFunction();
+        instance.setAnnotationsProcessor(new GraphQLAnnotations());
+        assertTrue(instance.apply(UUID.class, null) instanceof GraphQLObjectType);
+        instance.register(new UUIDFunction());
+        assertEquals(instance.apply(UUID.class, null), GraphQLString);
+    }
+
+}
@@ -18,13 +18,19 @@ import graphql.ExceptionWhileDataFetching;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
 import graphql.execution.batched.BatchedExecutionStrategy;
+import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLSchema;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static graphql.Scalars.GraphQLString;
 import static graphql.schema.GraphQLSchema.newSchema;
@@ -68,6 +74,52 @@ public class GraphQLBatchedTest {
         assertEquals(fields.get(1).get("a"), "two");
     }
 
+    public enum Size {SMALL, LARGE}
+
+    public static class EnhancedBatchedField {
+        private static int calls;
+
+        private final int size;
+
+        public EnhancedBatchedField(int size) {
+            this.size = size;
+        }
+
+        @GraphQLField
+        @GraphQLBatched
+        public static List<Size> size(DataFetchingEnvironment environment) {
+            calls++;
+            List<EnhancedBatchedField> sources = (List<EnhancedBatchedField>) environment.getSource();
+            return sources.stream().map(f -> f.size > 1 ? Size.LARGE : Size.SMALL).collect(Collectors.toList());
+        }
+
+        @GraphQLField
+        public Optional<String> optional() {
+            return Optional.of("optional");
+        }
+    }
+
+    public static class TestEnhancedBatchedObject {
+        @GraphQLField
+        public List<EnhancedBatchedField> fields() {
+            return Arrays.asList(new EnhancedBatchedField(1), new EnhancedBatchedField(2), new EnhancedBatchedField(3));
+        }
+    }
+
+    @Test
+    public void batchedEnhancedDataFetcher() {
+        EnhancedBatchedField.calls = 0;
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestEnhancedBatchedObject.class)).build();
+        ExecutionResult result = new GraphQL(schema, new BatchedEnhancedExecutionStrategy())
+                .execute("{ fields { size, optional } }", new TestEnhancedBatchedObject());
+        assertTrue(result.getErrors().isEmpty());
+        List<Map<String, Object>> fields = (List) ((Map<String, Object>) result.getData()).get("fields");
+        assertEquals(fields.get(0).get("size"), "SMALL");
+        assertEquals(fields.get(2).get("size"), "LARGE");
+        assertEquals(fields.get(1).get("optional"), "optional");
+        assertEquals(EnhancedBatchedField.calls, 1);
+    }
+
     private static class NoStaticBatchedField {
         @GraphQLField
         @GraphQLBatched
@@ -106,4 +158,158 @@ public class GraphQLBatchedTest {
     public void noParameterizedReturnField() {
         GraphQLObjectType object = GraphQLAnnotations.object(NoStaticBatchedField.class);
     }
+
+    public static class Author {
+        private final String name;
+
+        public Author(String name) {
+            this.name = name;
+        }
+
+        @GraphQLField
+        public String name() {
+            return name;
+        }
+    }
+
+    public static class Post {
+        private static final List<List<Post>> batches = new ArrayList<>();
+        private static final List<Integer> lengthBatches = new ArrayList<>();
+        private static final List<Integer> excerptBatches = new ArrayList<>();
+
+        private final String title;
+
+        public Post(String title) {
+            this.title = title;
+        }
+
+        @GraphQLField
+        public String title() {
+            return title;
+        }
+
+        @GraphQLField
+        @GraphQLBatched("loadAuthors")
+        public Author author() {
+            return loadAuthors(Collections.singletonList(this)).get(this);
+        }
+
+        @GraphQLField
+        @GraphQLBatched("loadLengths")
+        public Integer length() {
+            return title.length();
+        }
+
+        @GraphQLField
+        @GraphQLBatched("loadExcerpts")
+        public String excerpt(@GraphQLName("length") int length) {
+            return title.substring(0, Math.min(length, title.length()));
+        }
+
+        public static Map<Post, Author> loadAuthors(List<Post> posts) {
+            batches.add(posts);
+            Map<Post, Author> authors = new HashMap<>();
+            posts.forEach(post -> authors.put(post, new Author("author of " + post.title)));
+            return authors;
+        }
+
+        public static List<Integer> loadLengths(List<Post> posts) {
+            lengthBatches.add(posts.size());
+            return posts.stream().map(post -> post.title.length()).collect(Collectors.toList());
+        }
+
+        public static List<String> loadExcerpts(List<Post> posts, int length) {
+            excerptBatches.add(length);
+            return posts.stream().map(post -> post.excerpt(length)).collect(Collectors.toList());
+        }
+    }
+
+    public static class Blog {
+        @GraphQLField
+        public List<Post> posts() {
+            Post shared = new Post("shared");
+            return Arrays.asList(new Post("first"), shared, new Post("second"), shared);
+        }
+    }
+
+    @Test
+    public void batchLoader() {
+        Post.batches.clear();
+        Post.lengthBatches.clear();
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(Blog.class)).build();
+        ExecutionResult result = new GraphQL(schema, new BatchedEnhancedExecutionStrategy())
+                .execute("{ posts { title, length, author { name } } }", new Blog());
+        assertTrue(result.getErrors().isEmpty());
+        List<Map<String, Object>> posts = (List) ((Map<String, Object>) result.getData()).get("posts");
+        assertEquals(posts.size(), 4);
+        assertEquals(posts.get(0).get("title"), "first");
+        assertEquals(posts.get(0).get("length"), 5);
+        assertEquals(((Map<String, Object>) posts.get(2).get("author")).get("name"), "author of second");
+        assertEquals(((Map<String, Object>) posts.get(3).get("author")).get("name"), "author of shared");
+
+        // one call per batched field, each object loaded once
+        assertEquals(Post.batches.size(), 1);
+        assertEquals(Post.batches.get(0).size(), 3);
+        assertEquals(Post.lengthBatches, Arrays.asList(3));
+    }
+
+    @Test
+    public void batchLoaderArguments() {
+        Post.excerptBatches.clear();
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(Blog.class)).build();
+        ExecutionResult result = new GraphQL(schema, new BatchedEnhancedExecutionStrategy())
+                .execute("{ posts { short: excerpt(length: 2), long: excerpt(length: 4), again: excerpt(length: 2) } }", new Blog());
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        List<Map<String, Object>> posts = (List) ((Map<String, Object>) result.getData()).get("posts");
+        assertEquals(posts.get(0).get("short"), "fi");
+        assertEquals(posts.get(0).get("long"), "firs");
+        assertEquals(posts.get(2).get("again"), "se");
+
+        // one call per set of arguments
+        assertEquals(Post.excerptBatches, Arrays.asList(2, 4));
+    }
+
+    @Test
+    public void batchLoaderWithoutBatching() {
+        Post.batches.clear();
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(Blog.class)).build();
+        ExecutionResult result = new GraphQL(schema, new EnhancedExecutionStrategy())
+                .execute("{ posts { author { name } } }", new Blog());
+        assertTrue(result.getErrors().isEmpty());
+        List<Map<String, Object>> posts = (List) ((Map<String, Object>) result.getData()).get("posts");
+        assertEquals(((Map<String, Object>) posts.get(0).get("author")).get("name"), "author of first");
+        // the annotated method is called for each object
+        assertEquals(Post.batches.size(), 4);
+        assertEquals(Post.batches.get(0).size(), 1);
+    }
+
+    private static class NoBatchMethodField {
+        @GraphQLField
+        @GraphQLBatched("missing")
+        public String a() {
+            return "one";
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void noBatchMethod() {
+        GraphQLAnnotations.object(NoBatchMethodField.class);
+    }
+
+    private static class BatchMethodParametersField {
+        @GraphQLField
+        @GraphQLBatched("loadA")
+        public String a(@GraphQLName("arg") String arg) {
+            return arg;
+        }
+
+        public static List<String> loadA(List<BatchMethodParametersField> fields) {
+            return Collections.nCopies(fields.size(), "a");
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void batchMethodParameters() {
+        GraphQLAnnotations.object(BatchMethodParametersField.class);
+    }
 }
@@ -14,22 +14,33 @@
  */
 package graphql.annotations;
 
+import graphql.ExceptionWhileDataFetching;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
+import graphql.relay.Edge;
 import graphql.relay.PageInfo;
+import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLSchema;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static graphql.schema.GraphQLSchema.newSchema;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 @SuppressWarnings("unchecked")
@@ -104,6 +115,54 @@ public class GraphQLConnectionTest {
 
     }
 
+    public static class StreamFetcher implements DataFetcher {
+        @Override
+        public Object get(DataFetchingEnvironment environment) {
+            // connection arguments are applied by the connection
+            assertTrue(environment.getArguments().isEmpty());
+            return ((TestFetchedConnections) environment.getSource()).objs.stream();
+        }
+    }
+
+    public static class TestFetchedConnections {
+        private final List<Obj> objs;
+
+        @GraphQLField
+        @GraphQLConnection
+        @GraphQLDataFetcher(StreamFetcher.class)
+        public List<Obj> field;
+
+        public TestFetchedConnections(List<Obj> objs) {
+            this.objs = objs;
+        }
+
+        @GraphQLField
+        @GraphQLConnection
+        @GraphQLDataFetcher(StreamFetcher.class)
+        public List<Obj> getFetched() {
+            return null;
+        }
+
+        @GraphQLField
+        @GraphQLConnection
+        public CompletableFuture<List<Obj>> getFuture() {
+            return CompletableFuture.completedFuture(objs);
+        }
+    }
+
+    @Test
+    public void fetchedConnections() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestFetchedConnections.class)).build();
+        GraphQL graphQL = new GraphQL(schema, new EnhancedExecutionStrategy());
+        TestFetchedConnections root = new TestFetchedConnections(Arrays.asList(new Obj("1", "test"), new Obj("2", "hello")));
+
+        for (String name : Arrays.asList("field", "fetched", "future")) {
+            ExecutionResult result = graphQL.execute("{ " + name + "(first: 1) { edges { cursor node { id, val } } } }", root);
+            assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+            testResult(name, result);
+        }
+    }
+
     public void testResult(String name, ExecutionResult result) {
         Map<String, Map<String, List<Map<String, Map<String, Object>>>>> data = (Map<String, Map<String, List<Map<String, Map<String, Object>>>>>) result.getData();
         List<Map<String, Map<String, Object>>> edges = data.get(name).get("edges");
@@ -126,6 +185,294 @@ public class GraphQLConnectionTest {
         testResult("objStream", result);
     }
 
+    private graphql.relay.Connection slice(List<Integer> list, Object... arguments) {
+        Map<String, Object> args = new HashMap<>();
+        for (int i = 0; i < arguments.length; i += 2) {
+            args.put((String) arguments[i], arguments[i + 1]);
+        }
+        DataFetchingEnvironment environment = new DataFetchingEnvironment(null, args, null, null, null, null, null);
+        return (graphql.relay.Connection) new ListConnection(list, new DecimalCursorCodec()).get(environment);
+    }
+
+    private List<Object> nodes(graphql.relay.Connection connection) {
+        return connection.getEdges().stream().map(Edge::getNode).collect(Collectors.toList());
+    }
+
+    @Test
+    public void listSlicing() {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            list.add(i);
+        }
+        for (List<Integer> l : Arrays.asList(list, new LinkedList<>(list))) {
+            graphql.relay.Connection connection = slice(l, "first", 50, "after", "99999");
+            assertEquals(connection.getEdges().size(), 50);
+            assertEquals(connection.getEdges().get(0).getNode(), 100000);
+            assertEquals(connection.getEdges().get(49).getCursor().getValue(), "100049");
+            assertFalse(connection.getPageInfo().isHasPreviousPage());
+            assertTrue(connection.getPageInfo().isHasNextPage());
+
+            connection = slice(l, "last", 2, "before", "100");
+            assertEquals(nodes(connection), Arrays.asList(98, 99));
+            assertTrue(connection.getPageInfo().isHasPreviousPage());
+            assertFalse(connection.getPageInfo().isHasNextPage());
+
+            connection = slice(l, "first", 5, "last", 2, "after", "9");
+            assertEquals(nodes(connection), Arrays.asList(13, 14));
+            assertTrue(connection.getPageInfo().isHasPreviousPage());
+            assertTrue(connection.getPageInfo().isHasNextPage());
+
+            assertEquals(nodes(slice(l, "last", 3)), Arrays.asList(199997, 199998, 199999));
+            assertTrue(slice(l, "after", "199999").getEdges().isEmpty());
+            assertTrue(slice(l, "after", "10", "before", "5").getEdges().isEmpty());
+
+            connection = slice(l, "first", Integer.MAX_VALUE, "after", "0");
+            assertEquals(connection.getEdges().size(), 199999);
+            assertEquals(connection.getEdges().get(0).getNode(), 1);
+            assertFalse(connection.getPageInfo().isHasNextPage());
+            assertTrue(slice(l, "after", Integer.toString(Integer.MAX_VALUE)).getEdges().isEmpty());
+            assertTrue(slice(l, "last", Integer.MAX_VALUE, "before", "-5").getEdges().isEmpty());
+        }
+    }
+
+    public static class TestInfiniteStream {
+        private final AtomicInteger pulled = new AtomicInteger();
+
+        @GraphQLField
+        @GraphQLConnection
+        public Stream<Obj> getObjs() {
+            return Stream.iterate(1, i -> i + 1).peek(i -> pulled.incrementAndGet())
+                    .map(i -> new Obj(Integer.toString(i), "val" + i));
+        }
+    }
+
+    @Test
+    public void lazyStream() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestInfiniteStream.class)).build();
+        TestInfiniteStream root = new TestInfiniteStream();
+
+        ExecutionResult result = new GraphQL(schema).execute("{ objs(first: 2) { edges { cursor node { id } } pageInfo { hasNextPage endCursor } } }", root);
+        assertTrue(result.getErrors().isEmpty());
+
+        Map<String, Map<String, Object>> data = (Map<String, Map<String, Object>>) result.getData();
+        List<Map<String, Map<String, Object>>> edges = (List<Map<String, Map<String, Object>>>) data.get("objs").get("edges");
+        assertEquals(edges.size(), 2);
+        assertEquals(edges.get(1).get("node").get("id"), "2");
+        Map<String, Object> pageInfo = (Map<String, Object>) data.get("objs").get("pageInfo");
+        assertEquals(pageInfo.get("hasNextPage"), true);
+        assertEquals(root.pulled.get(), 3);
+
+        root.pulled.set(0);
+        result = new GraphQL(schema).execute("{ objs(after: \"" + pageInfo.get("endCursor") + "\", first: 1) { edges { node { id } } } }", root);
+        assertTrue(result.getErrors().isEmpty());
+        data = (Map<String, Map<String, Object>>) result.getData();
+        edges = (List<Map<String, Map<String, Object>>>) data.get("objs").get("edges");
+        assertEquals(edges.get(0).get("node").get("id"), "3");
+        assertEquals(root.pulled.get(), 4);
+    }
+
+    @Test
+    public void streamLast() {
+        GraphQLObjectType object = GraphQLAnnotations.object(TestConnections.class);
+        GraphQLSchema schema = newSchema().query(object).build();
+
+        ExecutionResult result = new GraphQL(schema).execute("{ objStream(first: 4, last: 2) { edges { cursor node { id } } pageInfo { hasPreviousPage hasNextPage } } }",
+                new TestConnections(Arrays.asList(new Obj("1", "a"), new Obj("2", "b"), new Obj("3", "c"), new Obj("4", "d"), new Obj("5", "e"))));
+        assertTrue(result.getErrors().isEmpty());
+
+        Map<String, Map<String, Object>> data = (Map<String, Map<String, Object>>) result.getData();
+        List<Map<String, Map<String, Object>>> edges = (List<Map<String, Map<String, Object>>>) data.get("objStream").get("edges");
+        assertEquals(edges.size(), 2);
+        assertEquals(edges.get(0).get("node").get("id"), "3");
+        assertEquals(edges.get(1).get("node").get("id"), "4");
+        Map<String, Object> pageInfo = (Map<String, Object>) data.get("objStream").get("pageInfo");
+        assertEquals(pageInfo.get("hasPreviousPage"), true);
+        assertEquals(pageInfo.get("hasNextPage"), true);
+    }
+
+
+    public static class DecimalCursorCodec extends DefaultCursorCodec {
+        @Override
+        public String encodeOffset(int offset) {
+            return Integer.toString(offset);
+        }
+
+        @Override
+        public int decodeOffset(String cursor) {
+            return Integer.parseInt(cursor);
+        }
+    }
+
+    public static class TestCursorCodec {
+        @GraphQLField
+        @GraphQLConnection(cursorCodec = DecimalCursorCodec.class)
+        public List<Obj> objs = Arrays.asList(new Obj("1", "test"), new Obj("2", "hello"), new Obj("3", "world"));
+
+        @GraphQLField
+        @GraphQLConnection(cursorCodec = DecimalCursorCodec.class)
+        public Stream<Obj> objStream() {
+            return objs.stream();
+        }
+    }
+
+    @Test
+    public void cursorCodec() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestCursorCodec.class)).build();
+
+        ExecutionResult result = new GraphQL(schema).execute("{ objs(after: \"0\", first: 1) { edges { cursor node { id } } } " +
+                "objStream(after: \"1\") { edges { cursor node { id } } } }", new TestCursorCodec());
+        assertTrue(result.getErrors().isEmpty());
+
+        Map<String, Map<String, List<Map<String, Object>>>> data = (Map<String, Map<String, List<Map<String, Object>>>>) result.getData();
+        List<Map<String, Object>> edges = data.get("objs").get("edges");
+        assertEquals(edges.size(), 1);
+        assertEquals(edges.get(0).get("cursor"), "1");
+        assertEquals(((Map<String, Object>) edges.get(0).get("node")).get("id"), "2");
+
+        edges = data.get("objStream").get("edges");
+        assertEquals(edges.size(), 2);
+        assertEquals(edges.get(0).get("cursor"), "2");
+        assertEquals(((Map<String, Object>) edges.get(1).get("node")).get("id"), "3");
+    }
+
+    @Test
+    public void defaultCursorCodec() {
+        CursorCodec codec = DefaultCursorCodec.INSTANCE;
+        assertEquals(codec.encodeOffset(5), "oF");
+        for (int offset : new int[]{0, 63, 64, Integer.MAX_VALUE}) {
+            assertEquals(codec.decodeOffset(codec.encodeOffset(offset)), offset);
+        }
+        for (long key : new long[]{0, -1, 42, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            assertEquals(codec.decodeKey(codec.encodeKey(key)), key);
+        }
+        assertEquals(codec.decodeKey(codec.encodeKey(7)), 7L);
+        assertEquals(codec.decodeKey(codec.encodeKey("h\u00e9llo")), "h\u00e9llo");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidCursor() {
+        DefaultCursorCodec.INSTANCE.decodeOffset(DefaultCursorCodec.INSTANCE.encodeKey(1L));
+    }
+
+    @Test
+    public void keysetCursorCodec() {
+        CursorCodec codec = new KeysetCursorCodec();
+        List<Object> key = Arrays.asList(1500000000000L, "abc", null, 1.5, true, 3);
+        assertEquals(codec.decodeKey(codec.encodeKey(key)), key);
+        assertEquals(codec.decodeKey(codec.encodeKey("single")), "single");
+        assertEquals(codec.decodeOffset(codec.encodeOffset(10)), 10);
+    }
+
+    @Test
+    public void keysetCursorCodecLimits() {
+        CursorCodec codec = new KeysetCursorCodec();
+        List<Object> key = Collections.nCopies(0xFFFF, 1);
+        assertEquals(codec.decodeKey(codec.encodeKey(key)), key);
+        String string = String.join("", Collections.nCopies(0xFFFF / 3, "\u20ac"));
+        assertEquals(codec.decodeKey(codec.encodeKey(string)), string);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void keysetCursorCodecTooManyValues() {
+        new KeysetCursorCodec().encodeKey(Collections.nCopies(0x10000, 1));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void keysetCursorCodecTooLongString() {
+        new KeysetCursorCodec().encodeKey(String.join("", Collections.nCopies(0xFFFF / 3 + 1, "\u20ac")));
+    }
+
+    public static class TestKeyset {
+        private final List<Obj> table = new ArrayList<>();
+        private PageRequest request;
+
+        public TestKeyset() {
+            for (int i = 1; i <= 10; i++) {
+                table.add(new Obj(Integer.toString(i), "val" + i));
+            }
+        }
+
+        // seeks to the requested keys like "WHERE id > ? ORDER BY id LIMIT ?" would
+        @GraphQLField
+        @GraphQLConnection
+        public Page<Obj> objs(PageRequest request) {
+            this.request = request;
+            Stream<Obj> rows = table.stream()
+                    .filter(o -> request.getAfter() == null || Long.parseLong(o.id) > (Long) request.getAfter())
+                    .filter(o -> request.getBefore() == null || Long.parseLong(o.id) < (Long) request.getBefore());
+            long limit = request.getLimit() == null ? Integer.MAX_VALUE : request.getLimit() + 1L;
+            List<Obj> items;
+            if (request.isForward()) {
+                items = rows.limit(limit).collect(Collectors.toList());
+            } else {
+                items = rows.collect(Collectors.toList());
+                items = items.subList((int) Math.max(0, items.size() - limit), items.size());
+            }
+            return Page.of(request, items, o -> Long.parseLong(o.id));
+        }
+    }
+
+    private Map<String, Object> keysetPage(GraphQL graphQL, TestKeyset root, String arguments) {
+        ExecutionResult result = graphQL.execute("{ objs(" + arguments + ") { edges { cursor node { id } } " +
+                "pageInfo { hasPreviousPage hasNextPage startCursor endCursor } } }", root);
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        return ((Map<String, Map<String, Object>>) result.getData()).get("objs");
+    }
+
+    private List<String> ids(Map<String, Object> page) {
+        return ((List<Map<String, Map<String, Object>>>) page.get("edges")).stream()
+                .map(edge -> (String) edge.get("node").get("id")).collect(Collectors.toList());
+    }
+
+    @Test
+    public void keysetPagination() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestKeyset.class)).build();
+        assertTrue(schema.getQueryType().getFieldDefinition("objs").getArguments().stream().noneMatch(a -> a.getName().equals("request")));
+        GraphQL graphQL = new GraphQL(schema);
+        TestKeyset root = new TestKeyset();
+
+        Map<String, Object> page = keysetPage(graphQL, root, "first: 3");
+        assertEquals(ids(page), Arrays.asList("1", "2", "3"));
+        Map<String, Object> pageInfo = (Map<String, Object>) page.get("pageInfo");
+        assertEquals(pageInfo.get("hasPreviousPage"), false);
+        assertEquals(pageInfo.get("hasNextPage"), true);
+
+        page = keysetPage(graphQL, root, "first: 3, after: \"" + pageInfo.get("endCursor") + "\"");
+        assertEquals(ids(page), Arrays.asList("4", "5", "6"));
+        assertEquals(root.request.getLimit(), Integer.valueOf(3));
+        assertEquals(root.request.getAfter(), 3L);
+        assertTrue(root.request.isForward());
+        pageInfo = (Map<String, Object>) page.get("pageInfo");
+        assertEquals(pageInfo.get("hasPreviousPage"), true);
+        assertEquals(pageInfo.get("hasNextPage"), true);
+
+        page = keysetPage(graphQL, root, "last: 2");
+        assertEquals(ids(page), Arrays.asList("9", "10"));
+        assertEquals(root.request.getDirection(), PageRequest.Direction.BACKWARD);
+        pageInfo = (Map<String, Object>) page.get("pageInfo");
+        assertEquals(pageInfo.get("hasPreviousPage"), true);
+        assertEquals(pageInfo.get("hasNextPage"), false);
+
+        page = keysetPage(graphQL, root, "last: 5, before: \"" + pageInfo.get("startCursor") + "\"");
+        assertEquals(ids(page), Arrays.asList("4", "5", "6", "7", "8"));
+
+        page = keysetPage(graphQL, root, "first: 4, last: 2");
+        assertEquals(ids(page), Arrays.asList("3", "4"));
+
+        page = keysetPage(graphQL, root, "after: \"" + pageInfo.get("startCursor") + "\"");
+        assertEquals(ids(page), Collections.singletonList("10"));
+        assertNull(root.request.getLimit());
+        pageInfo = (Map<String, Object>) page.get("pageInfo");
+        assertEquals(pageInfo.get("hasNextPage"), false);
+
+        page = keysetPage(graphQL, root, "first: 0");
+        assertEquals(ids(page), Collections.emptyList());
+
+        ExecutionResult result = graphQL.execute("{ objs(first: -1) { edges { node { id } } } }", root);
+        assertEquals(result.getErrors().size(), 1);
+        assertEquals(((ExceptionWhileDataFetching) result.getErrors().get(0)).getException().getMessage(),
+                "first must not be negative: -1");
+    }
 
     public static class CustomConnection implements Connection {
 
@@ -171,4 +518,37 @@ public class GraphQLConnectionTest {
         assertEquals(edges.size(), 0);
     }
 
+    public static class ReversedConnection extends ListConnection {
+        public ReversedConnection(List<?> data, CursorCodec cursorCodec) {
+            super(reverse(data), cursorCodec);
+        }
+
+        private static List<?> reverse(List<?> data) {
+            List<?> reversed = new ArrayList<>(data);
+            Collections.reverse(reversed);
+            return reversed;
+        }
+    }
+
+    public static class TestCustomCodecConnection {
+        @GraphQLField
+        @GraphQLConnection(connection = ReversedConnection.class, cursorCodec = DecimalCursorCodec.class)
+        public List<Obj> objs = Arrays.asList(new Obj("1", "test"), new Obj("2", "hello"), new Obj("3", "world"));
+    }
+
+    @Test
+    public void customConnectionWithCursorCodec() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestCustomCodecConnection.class)).build();
+
+        ExecutionResult result = new GraphQL(schema).execute("{ objs(first: 1) { edges { cursor node { id } } } }",
+                new TestCustomCodecConnection());
+        assertTrue(result.getErrors().isEmpty());
+
+        Map<String, Map<String, List<Map<String, Object>>>> data = (Map<String, Map<String, List<Map<String, Object>>>>) result.getData();
+        List<Map<String, Object>> edges = data.get("objs").get("edges");
+        assertEquals(edges.size(), 1);
+        assertEquals(edges.get(0).get("cursor"), "0");
+        assertEquals(((Map<String, Object>) edges.get(0).get("node")).get("id"), "3");
+    }
+
 }
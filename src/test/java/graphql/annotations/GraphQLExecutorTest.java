@@ -0,0 +1,260 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLSchema;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static graphql.schema.GraphQLSchema.newSchema;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@SuppressWarnings("unchecked")
+public class GraphQLExecutorTest {
+
+    public static class TestObject {
+        private static final AtomicInteger running = new AtomicInteger();
+        private static final AtomicInteger maxRunning = new AtomicInteger();
+
+        @GraphQLField
+        @GraphQLExecutor("io")
+        public String thread() {
+            return Thread.currentThread().getName();
+        }
+
+        @GraphQLField
+        @GraphQLExecutor("io")
+        public String field = "field";
+
+        @GraphQLField
+        public String caller() {
+            return Thread.currentThread().getName();
+        }
+
+        private static int run() throws InterruptedException {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return maxRunning.get();
+        }
+
+        @GraphQLField
+        @GraphQLExecutor("limited")
+        public int a() throws InterruptedException {
+            return run();
+        }
+
+        @GraphQLField
+        @GraphQLExecutor("limited")
+        public int b() throws InterruptedException {
+            return run();
+        }
+
+        @GraphQLField
+        @GraphQLExecutor("limited")
+        public int c() throws InterruptedException {
+            return run();
+        }
+
+        @GraphQLField
+        @GraphQLExecutor("io")
+        public String failing() {
+            throw new IllegalStateException("failing");
+        }
+    }
+
+    public static class BatchedItem {
+        private final int id;
+
+        public BatchedItem(int id) {
+            this.id = id;
+        }
+
+        @GraphQLField
+        @GraphQLBatched
+        @GraphQLExecutor("io")
+        public static List<String> name(DataFetchingEnvironment environment) {
+            List<BatchedItem> items = (List<BatchedItem>) environment.getSource();
+            return items.stream().map(item -> item.id + "@" + Thread.currentThread().getName()).collect(Collectors.toList());
+        }
+    }
+
+    public static class BatchedQuery {
+        @GraphQLField
+        public List<BatchedItem> items() {
+            return Arrays.asList(new BatchedItem(1), new BatchedItem(2));
+        }
+    }
+
+    @Test
+    public void namedExecutor() {
+        ExecutorService io = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "io"));
+        try {
+            GraphQLAnnotations annotations = new GraphQLAnnotations();
+            annotations.registerExecutor("io", io);
+            annotations.registerExecutor("limited", io, 1);
+            GraphQLSchema schema = newSchema().query(annotations.getObject(TestObject.class)).build();
+
+            ExecutionResult result = new GraphQL(schema, new EnhancedExecutionStrategy())
+                    .execute("{thread, field, caller, failing}", new TestObject());
+            assertEquals(result.getErrors().size(), 1);
+            Map<String, Object> data = (Map<String, Object>) result.getData();
+            assertEquals(data.get("thread"), "io");
+            assertEquals(data.get("field"), "field");
+            assertEquals(data.get("caller"), Thread.currentThread().getName());
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    @Test
+    public void bulkhead() throws InterruptedException {
+        ExecutorService io = Executors.newFixedThreadPool(3);
+        try {
+            GraphQLAnnotations annotations = new GraphQLAnnotations();
+            annotations.registerExecutor("io", io);
+            annotations.registerExecutor("limited", io, 1);
+            GraphQLSchema schema = newSchema().query(annotations.getObject(TestObject.class)).build();
+
+            // the fields are fetched concurrently, but run one at a time on the executor
+            ExecutionResult result = new GraphQL(schema, new ParallelEnhancedExecutionStrategy(io))
+                    .execute("{a, b, c}", new TestObject());
+            assertTrue(result.getErrors().isEmpty());
+            assertEquals(TestObject.maxRunning.get(), 1);
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    @Test
+    public void simpleStrategy() {
+        ExecutorService io = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "io"));
+        try {
+            GraphQLAnnotations annotations = new GraphQLAnnotations();
+            annotations.registerExecutor("io", io);
+            annotations.registerExecutor("limited", io, 1);
+            GraphQLSchema schema = newSchema().query(annotations.getObject(TestObject.class)).build();
+
+            // the fetches still run on the executor, the strategy thread waits for them
+            ExecutionResult result = new GraphQL(schema).execute("{thread, field, failing}", new TestObject());
+            assertEquals(result.getErrors().size(), 1);
+            Map<String, Object> data = (Map<String, Object>) result.getData();
+            assertEquals(data.get("thread"), "io");
+            assertEquals(data.get("field"), "field");
+            assertNull(data.get("failing"));
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    @Test
+    public void batchedOnExecutor() {
+        ExecutorService io = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "io"));
+        try {
+            GraphQLAnnotations annotations = new GraphQLAnnotations();
+            annotations.registerExecutor("io", io);
+            GraphQLSchema schema = newSchema().query(annotations.getObject(BatchedQuery.class)).build();
+
+            ExecutionResult result = new GraphQL(schema, new BatchedEnhancedExecutionStrategy())
+                    .execute("{items { name }}", new BatchedQuery());
+            assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+            List<Map<String, Object>> items = (List<Map<String, Object>>) ((Map<String, Object>) result.getData()).get("items");
+            assertEquals(items.get(0).get("name"), "1@io");
+            assertEquals(items.get(1).get("name"), "2@io");
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = GraphQLAnnotationsException.class)
+    public void unknownExecutor() {
+        new GraphQLAnnotations().getObject(TestObject.class);
+    }
+
+    @Test
+    public void directExecutor() {
+        FieldExecutor executor = new FieldExecutor("direct", Runnable::run, 1);
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        // the tasks are queued while the first one runs, and run one after the other (not recursively) once it's done
+        CompletableFuture<Object> first = executor.submit(() -> {
+            for (int i = 0; i < 100000; i++) {
+                int value = i;
+                futures.add(executor.submit(() -> value));
+            }
+            return "first";
+        });
+        assertEquals(first.join(), "first");
+        assertEquals(futures.size(), 100000);
+        assertEquals(futures.get(99999).join(), 99999);
+    }
+
+    @Test
+    public void foreignInterruptKept() {
+        FieldExecutor executor = new FieldExecutor("direct", Runnable::run, 1);
+        // only the interrupts delivered by cancellations are cleared
+        executor.submit(() -> {
+            Thread.currentThread().interrupt();
+            return null;
+        }).join();
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    public void queuedFetches() throws InterruptedException {
+        ExecutorService pool = Executors.newCachedThreadPool();
+        try {
+            FieldExecutor executor = new FieldExecutor("test", pool, 2);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger started = new AtomicInteger();
+            List<CompletableFuture<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(executor.submit(() -> {
+                    started.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return null;
+                }));
+            }
+            Thread.sleep(50);
+            assertEquals(started.get(), 2);
+            release.countDown();
+            assertEquals(executor.submit(() -> "done").join(), "done");
+            futures.forEach(CompletableFuture::join);
+            assertEquals(started.get(), 5);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -33,21 +33,32 @@ import org.testng.annotations.Test;
 
 import javax.validation.constraints.NotNull;
 import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static graphql.Scalars.GraphQLString;
 import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
 import static graphql.schema.GraphQLSchema.newSchema;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 @SuppressWarnings("unchecked")
@@ -197,13 +208,61 @@ public class GraphQLObjectTest {
         assertEquals(fields.get(5).getName(), "privateTest");
         assertEquals(fields.get(6).getName(), "publicTest");
 
-        assertEquals(fields.get(5).getDataFetcher().getClass(), PropertyDataFetcher.class);
-        assertEquals(fields.get(6).getDataFetcher().getClass(), FieldDataFetcher.class);
+        assertEquals(fields.get(5).getDataFetcher().getClass(), AccessorDataFetcher.class);
+        assertEquals(fields.get(6).getDataFetcher().getClass(), AccessorDataFetcher.class);
 
         assertEquals(fields.get(7).getName(), "z_nonOptionalString");
         assertTrue(fields.get(7).getType() instanceof graphql.schema.GraphQLNonNull);
     }
 
+    @Test
+    public void reflectiveAccessors() {
+        GraphQLAnnotations graphQLAnnotations = new GraphQLAnnotations();
+        graphQLAnnotations.setGenerateAccessors(false);
+        GraphQLObjectType object = graphQLAnnotations.getObject(TestObject.class);
+
+        assertEquals(object.getFieldDefinition("privateTest").getDataFetcher().getClass(), PropertyDataFetcher.class);
+        assertEquals(object.getFieldDefinition("publicTest").getDataFetcher().getClass(), FieldDataFetcher.class);
+    }
+
+    @Test
+    public void generatedAccessors() {
+        GraphQLObjectType object = GraphQLAnnotations.object(TestObject.class);
+        GraphQLSchema schema = newSchema().query(object).build();
+
+        ExecutionResult result = new GraphQL(schema).execute("{privateTest, publicTest}", new TestObject());
+        assertTrue(result.getErrors().isEmpty());
+        Map<String, Object> v = (Map<String, Object>) result.getData();
+        assertEquals(v.get("privateTest"), "private");
+        assertEquals(v.get("publicTest"), "public");
+
+        // sources of other types are still resolved reflectively
+        Map<String, Object> source = new HashMap<>();
+        source.put("privateTest", "map");
+        result = new GraphQL(schema).execute("{privateTest}", source);
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(((Map<String, Object>) result.getData()).get("privateTest"), "map");
+    }
+
+    public static class TestStaticGetter {
+        @GraphQLField
+        public String name = "field";
+
+        public static String getName() {
+            return "static";
+        }
+    }
+
+    @Test
+    public void staticGetter() {
+        GraphQLObjectType object = GraphQLAnnotations.object(TestStaticGetter.class);
+        assertEquals(object.getFieldDefinition("name").getDataFetcher().getClass(), PropertyDataFetcher.class);
+
+        ExecutionResult result = new GraphQL(newSchema().query(object).build()).execute("{name}", new TestStaticGetter());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(((Map<String, Object>) result.getData()).get("name"), "static");
+    }
+
     private static class TestObjectInherited extends TestObject {
         @Override
         @GraphQLName("field1") // Test overriding field
@@ -227,6 +286,45 @@ public class GraphQLObjectTest {
         assertEquals(((Map<String, Object>) result.getData()).get("field1"), "inherited");
     }
 
+    @Test
+    public void sharedMetadata() {
+        assertSame(ClassMetadata.of(TestObjectInherited.class), ClassMetadata.of(TestObjectInherited.class));
+        assertTrue(ClassMetadata.of(TestObjectInherited.class).getAllFields().keySet()
+                .containsAll(ClassMetadata.of(TestObject.class).getAllFields().keySet()));
+
+        GraphQLObjectType first = new GraphQLAnnotations().getObject(TestObjectInherited.class);
+        GraphQLObjectType second = new GraphQLAnnotations().getObject(TestObjectInherited.class);
+        assertNotSame(first, second);
+        assertEquals(first.getFieldDefinitions().stream().map(GraphQLFieldDefinition::getName).collect(Collectors.toList()),
+                second.getFieldDefinitions().stream().map(GraphQLFieldDefinition::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void filteringHooks() {
+        GraphQLAnnotations filtering = new GraphQLAnnotations() {
+            @Override
+            protected List<Method> getOrderedMethods(Class c) {
+                List<Method> methods = super.getOrderedMethods(c);
+                methods.removeIf(method -> method.getName().equals("fieldWithArgs"));
+                return methods;
+            }
+
+            @Override
+            protected Map<String, Field> getAllFields(Class c) {
+                Map<String, Field> fields = super.getAllFields(c);
+                fields.clear();
+                return fields;
+            }
+        };
+        GraphQLObjectType filtered = filtering.getObject(TestObject.class);
+        assertNull(filtered.getFieldDefinition("fieldWithArgs"));
+        assertNotNull(filtered.getFieldDefinition("field0"));
+
+        GraphQLObjectType object = new GraphQLAnnotations().getObject(TestObject.class);
+        assertNotNull(object.getFieldDefinition("fieldWithArgs"));
+        assertEquals(object.getFieldDefinitions().size(), GraphQLAnnotations.object(TestObject.class).getFieldDefinitions().size());
+    }
+
     private static class TestObjectBridgMethodParent<Type> {
         private final Type id;
 
@@ -455,6 +553,17 @@ public class GraphQLObjectTest {
 
     }
 
+    @Test
+    public void getterIndex() throws NoSuchMethodException {
+        ClassMetadata metadata = ClassMetadata.of(PrivateTestField.class);
+        assertEquals(ClassMetadata.getterName("is", "booleanField"), "isBooleanField");
+        assertEquals(metadata.getNoArgMethod("isBooleanField"), PrivateTestField.class.getMethod("isBooleanField"));
+        assertEquals(metadata.getNoArgMethod("field2"), PrivateTestField.class.getMethod("field2"));
+        assertNull(metadata.getNoArgMethod("getField2"));
+        // setters and other methods with parameters are not indexed
+        assertNull(metadata.getNoArgMethod("sfield2"));
+    }
+
     @Test
     public void defaultArg() {
         GraphQLObjectType object = GraphQLAnnotations.object(TestObject.class);
@@ -575,6 +684,55 @@ public class GraphQLObjectTest {
         assertEquals(inputObjectType.getFields().size(), object.getFieldDefinitions().size());
     }
 
+    private static class TestObjectInputs {
+        @GraphQLField
+        public String first(TestInputArgument arg) {
+            return arg.a;
+        }
+
+        @GraphQLField
+        public String second(TestInputArgument arg) {
+            return arg.a;
+        }
+    }
+
+    @Test
+    public void sharedInputObject() {
+        GraphQLAnnotations graphQLAnnotations = new GraphQLAnnotations();
+        GraphQLObjectType object = graphQLAnnotations.getObject(TestObjectInputs.class);
+        assertSame(object.getFieldDefinition("first").getArgument("arg").getType(),
+                object.getFieldDefinition("second").getArgument("arg").getType());
+        assertSame(graphQLAnnotations.getInputObject(graphQLAnnotations.getObject(TestInputArgument.class)),
+                object.getFieldDefinition("first").getArgument("arg").getType());
+    }
+
+    public static class TestNestedInput {
+        @GraphQLField
+        public TestInputArgument single;
+        @GraphQLField
+        public List<TestInputArgument> list;
+    }
+
+    @Test
+    public void nestedInputObject() {
+        GraphQLAnnotations graphQLAnnotations = new GraphQLAnnotations();
+        GraphQLInputObjectType input = graphQLAnnotations.getInputObject(graphQLAnnotations.getObject(TestNestedInput.class));
+        GraphQLInputType single = input.getField("single").getType();
+        assertSame(single, graphQLAnnotations.getInputObject(graphQLAnnotations.getObject(TestInputArgument.class)));
+        assertSame(((GraphQLList) input.getField("list").getType()).getWrappedType(), single);
+    }
+
+    public static class TestRecursiveInput {
+        @GraphQLField
+        public TestRecursiveInput next;
+    }
+
+    @Test(expectedExceptions = GraphQLAnnotationsException.class)
+    public void recursiveInputObject() {
+        GraphQLAnnotations graphQLAnnotations = new GraphQLAnnotations();
+        graphQLAnnotations.getInputObject(graphQLAnnotations.getObject(TestRecursiveInput.class));
+    }
+
     public static class UUIDTypeFunction implements TypeFunction {
         @Override
         public GraphQLType apply(Class<?> aClass, AnnotatedType annotatedType) {
@@ -711,4 +869,120 @@ public class GraphQLObjectTest {
         assertNull(object.getFieldDefinition("forcedOff"));
     }
 
+    public static class ConcurrentA {
+        @GraphQLField
+        public String name = "a";
+        @GraphQLField
+        public ConcurrentB b;
+    }
+
+    public static class ConcurrentB {
+        @GraphQLField
+        public ConcurrentA a;
+        @GraphQLField
+        public List<ConcurrentB> bs;
+    }
+
+    @Test
+    public void concurrentBuilds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 20; round++) {
+                GraphQLAnnotations graphQLAnnotations = new GraphQLAnnotations();
+                List<Future<GraphQLObjectType>> futures = new ArrayList<>();
+                for (int i = 0; i < 32; i++) {
+                    Class<?> c = i % 2 == 0 ? ConcurrentA.class : ConcurrentB.class;
+                    futures.add(executor.submit(() -> graphQLAnnotations.getObject(c)));
+                }
+                for (int i = 2; i < futures.size(); i++) {
+                    assertTrue(futures.get(i).get() == futures.get(i % 2).get());
+                }
+                assertResolvable(futures.get(0).get(), futures.get(1).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @GraphQLName("Same")
+    public static class SameNameOuter {
+        @GraphQLField
+        public SameNameInner inner;
+    }
+
+    @GraphQLName("Same")
+    public static class SameNameInner {
+        @GraphQLField
+        public String value;
+    }
+
+    @Test
+    public void sameNameClasses() {
+        GraphQLAnnotations graphQLAnnotations = new GraphQLAnnotations();
+        GraphQLObjectType outer = graphQLAnnotations.getObject(SameNameOuter.class);
+        // built on its own, not referring to the outer type with the same name
+        GraphQLType inner = outer.getFieldDefinition("inner").getType();
+        assertTrue(inner instanceof GraphQLObjectType);
+        assertNotNull(((GraphQLObjectType) inner).getFieldDefinition("value"));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void typeRegistryIsReadOnly() {
+        GraphQLAnnotations graphQLAnnotations = new GraphQLAnnotations();
+        graphQLAnnotations.getObject(SameNameInner.class);
+        graphQLAnnotations.getTypeRegistry().put("Same", GraphQLString);
+    }
+
+    @Test
+    public void typeReferencesResolveFromRoot() {
+        GraphQLAnnotations graphQLAnnotations = new GraphQLAnnotations();
+        GraphQLObjectType b = graphQLAnnotations.getObject(ConcurrentB.class);
+        // ConcurrentA was first built within ConcurrentB, referring to it through a type reference
+        GraphQLObjectType a = graphQLAnnotations.getObject(ConcurrentA.class);
+        assertResolvable(a, b);
+        assertTrue(graphQLAnnotations.getObject(ConcurrentA.class) == a);
+    }
+
+    // ConcurrentA and ConcurrentB refer to each other through type references, which must resolve from either root alone
+    private void assertResolvable(GraphQLObjectType aType, GraphQLObjectType bType) {
+        ConcurrentA a = new ConcurrentA();
+        a.b = new ConcurrentB();
+        a.b.a = a;
+        a.b.bs = Collections.singletonList(a.b);
+
+        ExecutionResult result = new GraphQL(newSchema().query(aType).build()).execute("{ b { a { name } bs { a { name } } } }", a);
+        assertTrue(result.getErrors().isEmpty());
+        Map<String, Object> b = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("b");
+        assertEquals(((Map<String, Object>) b.get("a")).get("name"), "a");
+
+        result = new GraphQL(newSchema().query(bType).build()).execute("{ a { b { a { name } } } }", a.b);
+        assertTrue(result.getErrors().isEmpty());
+        Map<String, Object> ab = (Map<String, Object>) ((Map<String, Object>) ((Map<String, Object>) result.getData()).get("a")).get("b");
+        assertEquals(((Map<String, Object>) ab.get("a")).get("name"), "a");
+    }
+
+    @Test
+    public void parallelBuild() {
+        GraphQLAnnotations sequential = new GraphQLAnnotations();
+        GraphQLObjectType a = sequential.getObject(ConcurrentA.class);
+        GraphQLObjectType b = sequential.getObject(ConcurrentB.class);
+
+        GraphQLAnnotations parallel = new GraphQLAnnotations();
+        Map<Class<?>, GraphQLType> types = parallel.getTypes(Arrays.asList(ConcurrentA.class, ConcurrentB.class, TestObject.class));
+        assertEquals(types.size(), 3);
+        assertTrue(types.get(ConcurrentA.class) == parallel.getObject(ConcurrentA.class));
+        assertEquals(types.get(ConcurrentA.class), a);
+        assertEquals(types.get(ConcurrentB.class), b);
+        assertEquals(types.get(TestObject.class), sequential.getObject(TestObject.class));
+
+        GraphQLSchema schema = newSchema().query((GraphQLObjectType) types.get(ConcurrentA.class)).build(new HashSet<>(types.values()));
+        assertNotNull(schema.getType("ConcurrentB"));
+        ConcurrentA root = new ConcurrentA();
+        root.b = new ConcurrentB();
+        root.b.a = root;
+        ExecutionResult result = new GraphQL(schema).execute("{ b { a { b { a { name } } } } }", root);
+        assertTrue(result.getErrors().isEmpty());
+
+        assertResolvable((GraphQLObjectType) types.get(ConcurrentA.class), (GraphQLObjectType) types.get(ConcurrentB.class));
+    }
 }
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.ExceptionWhileDataFetching;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.SimpleExecutionStrategy;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLSchema;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static graphql.schema.GraphQLSchema.newSchema;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@SuppressWarnings("unchecked")
+public class GraphQLTimeoutTest {
+
+    public static class TestObject {
+        private volatile boolean interrupted;
+        private final CompletableFuture<String> pending = new CompletableFuture<>();
+
+        @GraphQLField
+        @GraphQLTimeout(50)
+        public String slow() {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            return "slow";
+        }
+
+        @GraphQLField
+        @GraphQLTimeout(50)
+        public CompletableFuture<String> pending() {
+            return pending;
+        }
+
+        @GraphQLField
+        @GraphQLTimeout(1000)
+        public String fast() {
+            return "fast";
+        }
+
+        @GraphQLField
+        public String sleeping() throws InterruptedException {
+            Thread.sleep(30);
+            return "sleeping";
+        }
+
+        @GraphQLField
+        public boolean deadline() {
+            return RequestDeadline.remainingNanos() != Long.MAX_VALUE;
+        }
+
+        @GraphQLField
+        public TestObject nested() {
+            return new TestObject();
+        }
+    }
+
+    public static class BatchedItem {
+        private final int id;
+
+        public BatchedItem(int id) {
+            this.id = id;
+        }
+
+        @GraphQLField
+        @GraphQLBatched
+        @GraphQLTimeout(1000)
+        public static List<String> name(DataFetchingEnvironment environment) {
+            List<BatchedItem> items = (List<BatchedItem>) environment.getSource();
+            return items.stream().map(item -> "item" + item.id).collect(Collectors.toList());
+        }
+
+        @GraphQLField
+        @GraphQLBatched
+        @GraphQLTimeout(50)
+        public static List<String> slow(DataFetchingEnvironment environment) throws InterruptedException {
+            Thread.sleep(10_000);
+            return Collections.nCopies(((List<?>) environment.getSource()).size(), "slow");
+        }
+    }
+
+    public static class BatchedQuery {
+        @GraphQLField
+        public List<BatchedItem> items() {
+            return Arrays.asList(new BatchedItem(1), new BatchedItem(2));
+        }
+    }
+
+    private static void assertTimedOut(ExecutionResult result, int errors) {
+        assertEquals(result.getErrors().size(), errors);
+        result.getErrors().forEach(error ->
+                assertTrue(((ExceptionWhileDataFetching) error).getException() instanceof FieldTimeoutException));
+    }
+
+    @Test
+    public void fieldTimeout() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestObject.class)).build();
+        TestObject object = new TestObject();
+        long start = System.nanoTime();
+        ExecutionResult result = new GraphQL(schema, new EnhancedExecutionStrategy()).execute("{slow, pending, fast}", object);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        assertTimedOut(result, 2);
+        Map<String, Object> data = (Map<String, Object>) result.getData();
+        assertNull(data.get("slow"));
+        assertNull(data.get("pending"));
+        assertEquals(data.get("fast"), "fast");
+        assertTrue(object.interrupted);
+        assertTrue(object.pending.isCancelled());
+        assertTrue(!Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void fieldTimeoutWithoutEnhancedStrategy() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestObject.class)).build();
+        ExecutionResult result = new GraphQL(schema, new SimpleExecutionStrategy()).execute("{slow, fast}", new TestObject());
+        assertTimedOut(result, 1);
+        assertEquals(((Map<String, Object>) result.getData()).get("fast"), "fast");
+    }
+
+    @Test
+    public void batchedFieldTimeout() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(BatchedQuery.class)).build();
+        GraphQL graphQL = new GraphQL(schema, new BatchedEnhancedExecutionStrategy());
+
+        ExecutionResult result = graphQL.execute("{items { name }}", new BatchedQuery());
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        List<Map<String, Object>> items = (List<Map<String, Object>>) ((Map<String, Object>) result.getData()).get("items");
+        assertEquals(items.get(0).get("name"), "item1");
+        assertEquals(items.get(1).get("name"), "item2");
+
+        // the whole batch times out at once
+        result = graphQL.execute("{items { slow }}", new BatchedQuery());
+        assertTimedOut(result, 1);
+        items = (List<Map<String, Object>>) ((Map<String, Object>) result.getData()).get("items");
+        assertNull(items.get(0).get("slow"));
+        assertNull(items.get(1).get("slow"));
+    }
+
+    @Test
+    public void requestDeadline() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestObject.class)).build();
+        GraphQL graphQL = new GraphQL(schema, new EnhancedExecutionStrategy());
+        ExecutionResult result = RequestDeadline.within(50, TimeUnit.MILLISECONDS, () ->
+                graphQL.execute("{sleeping, nested { sleeping, nested { sleeping } } }", new TestObject()));
+
+        // nested.sleeping is interrupted, nested.nested isn't fetched at all
+        assertTimedOut(result, 2);
+        Map<String, Object> data = (Map<String, Object>) result.getData();
+        assertEquals(data.get("sleeping"), "sleeping");
+        Map<String, Object> nested = (Map<String, Object>) data.get("nested");
+        assertNull(nested.get("sleeping"));
+        assertNull(nested.get("nested"));
+        assertEquals(RequestDeadline.remainingNanos(), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void requestDeadlinePropagation() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(TestObject.class)).build();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            GraphQL graphQL = new GraphQL(schema, new ParallelEnhancedExecutionStrategy(executor));
+            ExecutionResult result = RequestDeadline.within(1, TimeUnit.SECONDS, () ->
+                    graphQL.execute("{sleeping, deadline}", new TestObject()));
+            assertTrue(result.getErrors().isEmpty());
+            Map<String, Object> data = (Map<String, Object>) result.getData();
+            assertEquals(data.get("deadline"), true);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
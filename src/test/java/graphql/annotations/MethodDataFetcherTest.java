@@ -19,6 +19,8 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.testng.Assert.*;
 
@@ -38,4 +40,71 @@ public class MethodDataFetcherTest {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    public String uncheckedMethod() {
+        throw new IllegalStateException("unchecked");
+    }
+
+    public String errorMethod() {
+        throw new AssertionError("error");
+    }
+
+    @Test
+    public void uncheckedRethrowing() throws NoSuchMethodException {
+        DataFetchingEnvironment environment = new DataFetchingEnvironment(this, new HashMap<>(), null, new ArrayList<>(), null, null, null);
+        // thrown as is, only checked exceptions are wrapped
+        try {
+            new MethodDataFetcher(getClass().getMethod("uncheckedMethod")).get(environment);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(e.getMessage(), "unchecked");
+        }
+        try {
+            new MethodDataFetcher(getClass().getMethod("errorMethod")).get(environment);
+            fail();
+        } catch (AssertionError e) {
+            assertEquals(e.getMessage(), "error");
+        }
+    }
+
+    public static String staticMethod(String value) {
+        return value + "!";
+    }
+
+    @Test
+    public void staticInvocation() throws NoSuchMethodException {
+        MethodDataFetcher methodDataFetcher = new MethodDataFetcher(getClass().getMethod("staticMethod", String.class));
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("value", "test");
+        Object result = methodDataFetcher.get(new DataFetchingEnvironment(null, args, null, new ArrayList<>(), null, null, null));
+        assertEquals(result, "test!");
+    }
+
+    public static class Detached {
+        @GraphQLInvokeDetached
+        public String detached() {
+            return "detached";
+        }
+    }
+
+    @Test
+    public void detachedInvocation() throws NoSuchMethodException {
+        MethodDataFetcher methodDataFetcher = new MethodDataFetcher(Detached.class.getMethod("detached"));
+        Object result = methodDataFetcher.get(new DataFetchingEnvironment(null, new HashMap<>(), null, new ArrayList<>(), null, null, null));
+        assertEquals(result, "detached");
+    }
+
+    public String concat(String a, @GraphQLName("second") String b) {
+        return a + b;
+    }
+
+    @Test
+    public void argumentsBoundByName() throws NoSuchMethodException {
+        MethodDataFetcher methodDataFetcher = new MethodDataFetcher(getClass().getMethod("concat", String.class, String.class));
+        Map<String, Object> args = new LinkedHashMap<>();
+        args.put("second", "b");
+        args.put("a", "a");
+        Object result = methodDataFetcher.get(new DataFetchingEnvironment(this, args, null, new ArrayList<>(), null, null, null));
+        assertEquals(result, "ab");
+    }
+}
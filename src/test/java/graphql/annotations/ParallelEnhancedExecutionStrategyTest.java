@@ -0,0 +1,299 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static graphql.schema.GraphQLSchema.newSchema;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@SuppressWarnings("unchecked")
+public class ParallelEnhancedExecutionStrategyTest {
+
+    public static class Query {
+        private final CountDownLatch latch = new CountDownLatch(3);
+
+        // returns only if all three fields are being resolved at the same time
+        private boolean meet() throws InterruptedException {
+            latch.countDown();
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+
+        @GraphQLField
+        public boolean a() throws InterruptedException {
+            return meet();
+        }
+
+        @GraphQLField
+        public boolean b() throws InterruptedException {
+            return meet();
+        }
+
+        @GraphQLField
+        public boolean c() throws InterruptedException {
+            return meet();
+        }
+
+        @GraphQLField
+        public Query nested() {
+            return new Query();
+        }
+
+        @GraphQLField
+        public String failing() {
+            throw new IllegalStateException("failing");
+        }
+
+        @GraphQLField
+        public Optional<String> optional() {
+            return Optional.of("optional");
+        }
+
+        @GraphQLField
+        public E e() {
+            return E.B;
+        }
+    }
+
+    public enum E {A, B}
+
+    public static class AsyncQuery {
+        private final CountDownLatch latch = new CountDownLatch(2);
+        private final ExecutorService service = Executors.newCachedThreadPool();
+
+        // completes only once both fields have been fetched
+        private CompletableFuture<String> call(String value) {
+            latch.countDown();
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    if (!latch.await(5, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("timed out");
+                    }
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return value;
+            }, service);
+        }
+
+        @GraphQLField
+        public CompletableFuture<String> first() {
+            return call("first");
+        }
+
+        @GraphQLField
+        public CompletionStage<String> second() {
+            return call("second");
+        }
+
+        @GraphQLField
+        public CompletableFuture<String> failed() {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("failed"));
+            return future;
+        }
+    }
+
+    @Test
+    public void futures() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(AsyncQuery.class)).build();
+        // everything runs on the calling thread: futures must not be waited for one at a time
+        Executor executor = command -> {
+            throw new RejectedExecutionException();
+        };
+        AsyncQuery query = new AsyncQuery();
+        try {
+            ExecutionResult result = new GraphQL(schema, new ParallelEnhancedExecutionStrategy(executor))
+                    .execute("{first, second, failed}", query);
+            assertEquals(result.getErrors().size(), 1);
+            Map<String, Object> data = (Map<String, Object>) result.getData();
+            assertEquals(data.get("first"), "first");
+            assertEquals(data.get("second"), "second");
+            assertNull(data.get("failed"));
+        } finally {
+            query.service.shutdown();
+        }
+    }
+
+    @Test
+    public void serialFutures() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(AsyncQuery.class)).build();
+        AsyncQuery query = new AsyncQuery();
+        query.latch.countDown();
+        try {
+            ExecutionResult result = new GraphQL(schema, new EnhancedExecutionStrategy()).execute("{first, failed}", query);
+            assertEquals(result.getErrors().size(), 1);
+            assertEquals(((Map<String, Object>) result.getData()).get("first"), "first");
+        } finally {
+            query.service.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentFields() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(Query.class)).build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ExecutionResult result = new GraphQL(schema, new ParallelEnhancedExecutionStrategy(executor))
+                    .execute("{a, b, c, nested { a, b, c } }", new Query());
+            assertTrue(result.getErrors().isEmpty());
+            Map<String, Object> data = (Map<String, Object>) result.getData();
+            assertEquals(data.get("a"), true);
+            assertEquals(data.get("b"), true);
+            assertEquals(data.get("c"), true);
+            assertEquals(((Map<String, Object>) data.get("nested")).get("c"), true);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void virtualThreads() {
+        VirtualThreadExecutionStrategy strategy = new VirtualThreadExecutionStrategy(2);
+        boolean supported;
+        try {
+            Thread.class.getMethod("ofVirtual");
+            supported = true;
+        } catch (NoSuchMethodException e) {
+            supported = false;
+        }
+        assertEquals(strategy.isVirtualThreads(), supported);
+
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(Query.class)).build();
+        ExecutionResult result = new GraphQL(schema, strategy).execute("{a, b, c}", new Query());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(((Map<String, Object>) result.getData()).get("c"), true);
+    }
+
+    @Test
+    public void enhancedBehaviour() {
+        GraphQLSchema schema = newSchema().query(GraphQLAnnotations.object(Query.class)).build();
+        ExecutionResult result = new GraphQL(schema, new ParallelEnhancedExecutionStrategy())
+                .execute("{optional, e, failing}", new Query());
+        assertEquals(result.getErrors().size(), 1);
+        Map<String, Object> data = (Map<String, Object>) result.getData();
+        assertEquals(data.get("optional"), "optional");
+        assertEquals(data.get("e"), "B");
+        assertNull(data.get("failing"));
+    }
+
+    public static class AdaptiveQuery {
+        @GraphQLField
+        public String first() {
+            return "first";
+        }
+
+        @GraphQLField
+        public String cheap() {
+            return "cheap";
+        }
+
+        @GraphQLField
+        public String slow() throws InterruptedException {
+            Thread.sleep(20);
+            return "slow";
+        }
+    }
+
+    @Test
+    public void adaptiveOffloading() {
+        AtomicInteger offloaded = new AtomicInteger();
+        ExecutorService service = Executors.newCachedThreadPool();
+        Executor executor = command -> {
+            offloaded.incrementAndGet();
+            service.execute(command);
+        };
+        FieldLatencyStatistics statistics = new FieldLatencyStatistics(TimeUnit.MILLISECONDS.toNanos(5), 0);
+        AdaptiveParallelExecutionStrategy strategy = new AdaptiveParallelExecutionStrategy(executor, statistics);
+        GraphQLObjectType query = GraphQLAnnotations.object(AdaptiveQuery.class);
+        GraphQLSchema schema = newSchema().query(query).build();
+        GraphQL graphQL = new GraphQL(schema, strategy);
+        try {
+            // unobserved fields are offloaded
+            ExecutionResult result = graphQL.execute("{first, cheap, slow}", new AdaptiveQuery());
+            assertTrue(result.getErrors().isEmpty());
+            assertEquals(offloaded.get(), 2);
+
+            // only the slow field is, once observed
+            offloaded.set(0);
+            result = graphQL.execute("{first, cheap, slow}", new AdaptiveQuery());
+            assertEquals(((Map<String, Object>) result.getData()).get("slow"), "slow");
+            assertEquals(offloaded.get(), 1);
+
+            assertEquals(statistics.getThresholdNanos(), TimeUnit.MILLISECONDS.toNanos(5));
+            assertTrue(statistics.getLatencyNanos(query.getFieldDefinition("slow")) >= TimeUnit.MILLISECONDS.toNanos(20));
+            assertTrue(statistics.isExpensive(query.getFieldDefinition("slow")));
+            assertEquals(statistics.getLatencies().size(), 3);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    public static class Mutation {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        private int run() throws InterruptedException {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            running.decrementAndGet();
+            return maxRunning.get();
+        }
+
+        @GraphQLField
+        public int first() throws InterruptedException {
+            return run();
+        }
+
+        @GraphQLField
+        public int second() throws InterruptedException {
+            return run();
+        }
+
+        @GraphQLField
+        public Mutation nested() {
+            return this;
+        }
+    }
+
+    @Test
+    public void serialMutations() {
+        GraphQLObjectType mutation = GraphQLAnnotations.object(Mutation.class);
+        GraphQLSchema schema = newSchema().query(mutation).mutation(mutation).build();
+        Mutation root = new Mutation();
+        ExecutionResult result = new GraphQL(schema, new ParallelEnhancedExecutionStrategy())
+                .execute("mutation { nested { first, second } }", root);
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(root.maxRunning.get(), 1);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright 2016 Yurii Rashkovskii
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package graphql.annotations;
+
+import graphql.ErrorType;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static graphql.schema.GraphQLSchema.newSchema;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@SuppressWarnings("unchecked")
+public class QueryCostAnalyzerTest {
+
+    private static final AtomicInteger fetches = new AtomicInteger();
+
+    public static class CostItem {
+        @GraphQLField
+        public String name() {
+            fetches.incrementAndGet();
+            return "name";
+        }
+
+        @GraphQLField
+        @GraphQLCost(5)
+        public String details() {
+            return "details";
+        }
+    }
+
+    public static class CostRoot {
+        @GraphQLField
+        @GraphQLCost(multiplier = 100)
+        public List<CostItem> items() {
+            fetches.incrementAndGet();
+            return Arrays.asList(new CostItem(), new CostItem());
+        }
+
+        @GraphQLField
+        public List<CostItem> others() {
+            fetches.incrementAndGet();
+            return Collections.singletonList(new CostItem());
+        }
+
+        @GraphQLField
+        @GraphQLConnection
+        public List<CostItem> connection() {
+            return Arrays.asList(new CostItem(), new CostItem());
+        }
+
+        @GraphQLField
+        public CostRoot nested() {
+            return new CostRoot();
+        }
+    }
+
+    private GraphQLSchema schema;
+
+    @BeforeMethod
+    public void init() {
+        schema = newSchema().query(GraphQLAnnotations.object(CostRoot.class)).build();
+        fetches.set(0);
+    }
+
+    private QueryCost analyze(String query) {
+        return new QueryCostAnalyzer(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE).analyze(schema, query, null);
+    }
+
+    @Test
+    public void recordedCost() {
+        GraphQLAnnotations.GraphQLFieldDefinitionWrapper items = (GraphQLAnnotations.GraphQLFieldDefinitionWrapper)
+                schema.getQueryType().getFieldDefinition("items");
+        assertEquals(items.getCost(), 1);
+        assertEquals(items.getMultiplier(), 100);
+    }
+
+    @Test
+    public void lists() {
+        QueryCost cost = analyze("{ items { name details } }");
+        assertEquals(cost.getCost(), 1 + 100 * (1 + 5));
+        assertEquals(cost.getDepth(), 2);
+        assertEquals(cost.getBreadth(), 2);
+
+        assertEquals(analyze("{ others { name } }").getCost(), 1 + QueryCostAnalyzer.DEFAULT_LIST_SIZE);
+    }
+
+    @Test
+    public void connections() {
+        QueryCost cost = analyze("{ connection(first: 3) { edges { node { name } } pageInfo { hasNextPage } } }");
+        // connection + edges + 3 * (node + name) + pageInfo + hasNextPage
+        assertEquals(cost.getCost(), 1 + 1 + 3 * 2 + 2);
+        assertEquals(cost.getDepth(), 4);
+
+        QueryCost variableCost = new QueryCostAnalyzer(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE).analyze(schema,
+                "query Q($count: Int) { connection(first: $count) { edges { node { name } } } }", Collections.singletonMap("count", 50));
+        assertEquals(variableCost.getCost(), 1 + 1 + 50 * 2);
+    }
+
+    @Test
+    public void coercedVariables() {
+        QueryCostAnalyzer analyzer = new QueryCostAnalyzer(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        String query = "query Q($count: Int = 100000) { connection(first: $count) { edges { node { name } } } }";
+        long cost = 1 + 1 + 100000 * 2;
+        assertEquals(analyzer.analyze(schema, "{ connection(first: 100000) { edges { node { name } } } }", null).getCost(), cost);
+        // default value
+        assertEquals(analyzer.analyze(schema, query, null).getCost(), cost);
+        // coerced by the execution
+        assertEquals(analyzer.analyze(schema, query, Collections.singletonMap("count", "100000")).getCost(), cost);
+        // a null variable gets the default value too
+        assertEquals(analyzer.analyze(schema, query, Collections.singletonMap("count", null)).getCost(), cost);
+        assertEquals(analyzer.analyze(schema, query.replace(" = 100000", ""), null).getCost(),
+                1 + 1 + QueryCostAnalyzer.DEFAULT_LIST_SIZE * 2);
+        // not an Int: the execution fails, the limit is considered unbounded
+        assertEquals(analyzer.analyze(schema, query, Collections.singletonMap("count", "many")).getCost(), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void fragments() {
+        QueryCost cost = analyze("{ nested { ...f ... on CostRoot { nested { others { name } } } } } " +
+                "fragment f on CostRoot { items { name } others { name } }");
+        assertEquals(cost.getCost(), 1 + (1 + 100) + (1 + 10) + (1 + 1 + 10));
+        assertEquals(cost.getDepth(), 4);
+        assertEquals(cost.getBreadth(), 3);
+    }
+
+    @Test
+    public void rejection() {
+        QueryCostAnalyzer analyzer = new QueryCostAnalyzer(100, 5, 10);
+        GraphQL graphQL = new GraphQL(schema);
+
+        ExecutionResult result = analyzer.execute(graphQL, schema, "{ items { name } }", new CostRoot(), null);
+        assertNull(result.getData());
+        assertEquals(result.getErrors().size(), 1);
+        assertEquals(result.getErrors().get(0).getErrorType(), ErrorType.ValidationError);
+        assertTrue(result.getErrors().get(0).getMessage().contains("cost"));
+        assertEquals(fetches.get(), 0);
+
+        result = analyzer.execute(graphQL, schema, "{ nested { nested { nested { nested { nested { name: __typename } } } } } }",
+                new CostRoot(), null);
+        assertTrue(result.getErrors().get(0).getMessage().contains("depth"));
+
+        result = analyzer.execute(graphQL, schema, "{ others { name } }", new CostRoot(), null);
+        assertTrue(result.getErrors().isEmpty());
+        assertNotNull(((Map<String, Object>) result.getData()).get("others"));
+        assertEquals(fetches.get(), 2);
+    }
+}
@@ -178,6 +178,23 @@ public class RelayTest {
         assertEquals(returns.get("clientMutationId"), "1");
     }
 
+    @Test
+    public void batchedMutation() {
+        GraphQLObjectType object = GraphQLAnnotations.object(TestObject.class);
+        GraphQLSchema schema = GraphQLSchema.newSchema().query(object).mutation(object).build();
+
+        GraphQL graphQL = new GraphQL(schema, new BatchedEnhancedExecutionStrategy());
+
+        ExecutionResult result = graphQL.execute("mutation { doSomethingElse(input: {a: 0, b: 1, clientMutationId: \"1\"}) { i clientMutationId } }", new TestObject());
+
+        assertEquals(result.getErrors().size(), 0);
+
+        Map<String, Object> returns = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("doSomethingElse");
+
+        assertEquals(returns.get("i"), -1);
+        assertEquals(returns.get("clientMutationId"), "1");
+    }
+
     @Test
     public void argVariableMutation() {
         GraphQLObjectType object = GraphQLAnnotations.object(TestObject.class);
@@ -219,5 +236,11 @@ public class RelayTest {
 
         assertEquals(returns.get("i"), -1);
         assertEquals(returns.get("clientMutationId"), "1");
+
+        // the same strategy, with other variables
+        inputVariables.put("clientMutationId", "2");
+        result = graphQL.execute("mutation VariableMutation($input:DoSomethingElseInput!) { doSomethingElse(input: $input) { i clientMutationId } }", new TestObject(), variables);
+        returns = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("doSomethingElse");
+        assertEquals(returns.get("clientMutationId"), "2");
     }
 }